@@ -0,0 +1,59 @@
+package com.taskmanager.benchmark;
+
+import com.taskmanager.security.jwt.JwtRequestFilter;
+import com.taskmanager.security.jwt.JwtUtil;
+import com.taskmanager.security.jwt.TokenRevocationList;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One full pass through JwtRequestFilter with an in-memory UserDetailsService standing in for the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtRequestFilterBenchmark {
+
+    @Param({"10000", "0"})
+    public int tokenCacheSize;
+
+    private JwtRequestFilter filter;
+    private String authorizationHeader;
+
+    @Setup
+    public void setUp() {
+        UserDetails user = new User("bench@example.com", "n/a", List.of(new SimpleGrantedAuthority("USER")));
+        UserDetailsService userDetailsService = username -> user;
+        JwtUtil jwtUtil = JwtBenchmark.jwtUtil(tokenCacheSize);
+        filter = new JwtRequestFilter(userDetailsService, jwtUtil, new TokenRevocationList(3_600_000, 10_000),
+                new SimpleMeterRegistry());
+        authorizationHeader = "Bearer " + jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+        request.addHeader("Authorization", authorizationHeader);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
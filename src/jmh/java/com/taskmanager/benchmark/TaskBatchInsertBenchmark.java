@@ -0,0 +1,159 @@
+package com.taskmanager.benchmark;
+
+import com.taskmanager.TaskmanagementApplication;
+import com.taskmanager.model.Task;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.service.TaskService;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Inserting a few thousand tasks in one transaction, with sequence ids that Hibernate can batch
+ * against the IDENTITY ids the tasks table used before, whose inserts go out one statement per row.
+ * The service benchmarks show the same work through TaskService, one row per call and in bulk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskBatchInsertBenchmark {
+
+    @Param({"2000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private TaskService taskService;
+    private TaskRepository taskRepository;
+    private JdbcTemplate jdbcTemplate;
+    private Long ownerId;
+    private int jdbcBatchSize;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(TaskmanagementApplication.class)
+                .run("--server.port=0", "--logging.level.root=WARN",
+                        "--spring.datasource.url=jdbc:h2:mem:batch-benchmark;DB_CLOSE_DELAY=-1");
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        taskService = context.getBean(TaskService.class);
+        taskRepository = context.getBean(TaskRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        ownerId = context.getBean(UserRepository.class).findByEmail("test@example.com").orElseThrow().getId();
+        jdbcBatchSize = context.getEnvironment().getProperty("spring.jpa.properties.hibernate.jdbc.batch_size", Integer.class, 100);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteInsertedRows() {
+        taskRepository.deleteAllInBatch();
+        jdbcTemplate.update("DELETE FROM identity_tasks");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public int persistWithIdentityIds() {
+        return persistAll(i -> new IdentityTask("identity " + i, ownerId));
+    }
+
+    @Benchmark
+    public int persistWithSequenceIds() {
+        return persistAll(i -> {
+            Task task = new Task(null, "sequence " + i, "benchmark task", i % 2 == 0);
+            task.setOwnerId(ownerId);
+            return task;
+        });
+    }
+
+    @Benchmark
+    public List<Task> createTasksInBulk() {
+        return taskService.createTasks(ownerId, newTasks("bulk"));
+    }
+
+    @Benchmark
+    public int createTasksOneByOne() {
+        for (Task task : newTasks("single")) {
+            taskService.createTask(ownerId, task);
+        }
+        return rows;
+    }
+
+    // The same loop as TaskService.createTasks, minus the change events.
+    private int persistAll(IntFunction<Object> entity) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            for (int i = 0; i < rows; i++) {
+                entityManager.persist(entity.apply(i));
+                if ((i + 1) % jdbcBatchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+        return rows;
+    }
+
+    private List<Task> newTasks(String prefix) {
+        List<Task> tasks = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            tasks.add(new Task(null, prefix + " " + i, "benchmark task", i % 2 == 0));
+        }
+        return tasks;
+    }
+
+    /**
+     * The tasks table's columns with an IDENTITY key. Only mapped when the benchmarks are on the
+     * classpath.
+     */
+    @Entity
+    @Table(name = "identity_tasks")
+    public static class IdentityTask {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        @Column(nullable = false)
+        private String title;
+
+        @Column(nullable = false)
+        private String description = "benchmark task";
+
+        private boolean completed;
+
+        @Column(name = "owner_id")
+        private Long ownerId;
+
+        protected IdentityTask() {
+        }
+
+        IdentityTask(String title, Long ownerId) {
+            this.title = title;
+            this.ownerId = ownerId;
+        }
+    }
+}
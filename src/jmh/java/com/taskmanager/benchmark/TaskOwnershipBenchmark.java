@@ -0,0 +1,98 @@
+package com.taskmanager.benchmark;
+
+import com.taskmanager.TaskmanagementApplication;
+import com.taskmanager.entity.User;
+import com.taskmanager.model.Task;
+import com.taskmanager.payload.response.TaskPageResponse;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The queries behind one user's task refresh (the listing, an open-task page and a count) while
+ * other users own none or many tasks. The scores should stay close: the owner index bounds the work to the
+ * user's own rows. Add larger sizes with -p otherRows=0,2000000.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskOwnershipBenchmark {
+
+    private static final int OWN_TASKS = 200;
+    private static final int OTHER_USERS = 20;
+
+    @Param({"0", "200000"})
+    private int otherRows;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private Long ownerId;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(TaskmanagementApplication.class)
+                .run("--server.port=0", "--logging.level.root=WARN",
+                        "--spring.datasource.url=jdbc:h2:mem:ownership-" + otherRows + ";DB_CLOSE_DELAY=-1");
+        taskService = context.getBean(TaskService.class);
+        UserRepository users = context.getBean(UserRepository.class);
+        ownerId = users.findByEmail("test@example.com").orElseThrow().getId();
+
+        List<Task> own = new ArrayList<>();
+        for (int i = 0; i < OWN_TASKS; i++) {
+            own.add(new Task(null, "Mine " + i, "owned by the test user", i % 4 == 0));
+        }
+        taskService.createTasks(ownerId, own);
+        insertOtherUsersTasks(users, context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Task> listOwnTasks() {
+        return taskService.getAllTasks(ownerId);
+    }
+
+    @Benchmark
+    public TaskPageResponse pageOfOpenTasks() {
+        return taskService.getTaskPage(ownerId, null, 50, false);
+    }
+
+    @Benchmark
+    public long countCompletedTasks() {
+        return taskService.countTasks(ownerId, true);
+    }
+
+    private void insertOtherUsersTasks(UserRepository users, JdbcTemplate jdbcTemplate) {
+        List<Long> others = new ArrayList<>();
+        for (int u = 0; u < OTHER_USERS; u++) {
+            others.add(users.save(new User(null, "volume" + u, "hash", "volume" + u + "@example.com", Set.of())).getId());
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (int i = 0; i < otherRows; i++) {
+            rows.add(new Object[]{1_000_000_000L + i, "Other " + i, "someone else's task", i % 4 == 0, now, others.get(i % OTHER_USERS)});
+            if (rows.size() == 10_000 || i == otherRows - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO tasks (id, title, description, completed, version, updated_at, owner_id) "
+                        + "VALUES (?, ?, ?, ?, 0, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+}
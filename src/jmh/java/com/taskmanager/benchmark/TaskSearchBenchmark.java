@@ -0,0 +1,104 @@
+package com.taskmanager.benchmark;
+
+import com.taskmanager.event.TaskChangedEvent;
+import com.taskmanager.model.Task;
+import com.taskmanager.search.TaskSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Longer warmup so background segment merges from the bulk load settle before measuring.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class TaskSearchBenchmark {
+
+    private static final String[] WORDS = {
+            "report", "invoice", "deploy", "release", "meeting", "review", "budget", "client", "backend", "frontend",
+            "database", "migration", "customer", "support", "ticket", "design", "prototype", "sprint", "planning", "audit"
+    };
+
+    private static final int RARE_TERMS = 50_000;
+
+    // Tasks are spread over this many owners; queries run as the first one.
+    private static final long OWNERS = 10;
+
+    @Param({"1000000"})
+    public int tasks;
+
+    private TaskSearchIndex index;
+    private long nextId;
+
+    @Setup
+    public void setUp() throws IOException {
+        index = new TaskSearchIndex(null, "", 100, 100);
+        Random random = new Random(42);
+        List<Task> batch = new ArrayList<>(10_000);
+        for (long id = 1; id <= tasks; id++) {
+            Task task = new Task(id, sentence(random, 3), sentence(random, 12), false);
+            task.setOwnerId(ownerOf(id));
+            batch.add(task);
+            if (batch.size() == 10_000) {
+                index.index(batch);
+                batch.clear();
+            }
+        }
+        index.index(batch);
+        index.awaitSearchable();
+        nextId = tasks + 1L;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        index.close();
+    }
+
+    private static long ownerOf(long id) {
+        return id % OWNERS + 1;
+    }
+
+    // One word in five comes from a small common vocabulary, the rest from a long tail of rare terms.
+    private static String sentence(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (random.nextInt(5) == 0) {
+                sb.append(WORDS[random.nextInt(WORDS.length)]);
+            } else {
+                sb.append("term").append(random.nextInt(RARE_TERMS));
+            }
+            sb.append(' ');
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public List<Long> singleTerm() {
+        return index.search(1L, "invoice", 20);
+    }
+
+    @Benchmark
+    public List<Long> twoTerms() {
+        return index.search(1L, "deploy term4242", 20);
+    }
+
+    @Benchmark
+    public List<Long> prefix() {
+        return index.search(1L, "term424*", 20);
+    }
+
+    // What the committing request pays; the reopen thread makes the change searchable afterwards.
+    @Benchmark
+    public void indexUpdate() {
+        long id = nextId++ % tasks + 1;
+        Task task = new Task(id, "Updated review", "Budget audit", false);
+        task.setOwnerId(ownerOf(id));
+        index.onTaskChanged(TaskChangedEvent.updated(task.getOwnerId(), List.of(task), 0));
+    }
+}
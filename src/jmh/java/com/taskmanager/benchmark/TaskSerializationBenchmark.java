@@ -0,0 +1,86 @@
+package com.taskmanager.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.taskmanager.model.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Payload sizes, raw and gzipped, are printed once per format and size during setup.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskSerializationBenchmark {
+
+    private static final TypeReference<List<Task>> TASK_LIST = new TypeReference<>() { };
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    // json is the reflective baseline; the others use Blackbird as the application does.
+    @Param({"json", "json-blackbird", "smile", "cbor"})
+    public String format;
+
+    private ObjectMapper objectMapper;
+    private List<Task> tasks;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "json" -> mapper(new JsonFactory(), false);
+            case "json-blackbird" -> mapper(new JsonFactory(), true);
+            case "smile" -> mapper(new SmileFactory(), true);
+            case "cbor" -> mapper(new CBORFactory(), true);
+            default -> throw new IllegalArgumentException(format);
+        };
+        Instant now = Instant.now();
+        tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Task task = new Task((long) i, "Task " + i, "Description of task " + i, i % 3 == 0);
+            task.setVersion((long) i % 7);
+            task.setUpdatedAt(now);
+            tasks.add(task);
+        }
+        payload = objectMapper.writeValueAsBytes(tasks);
+        System.out.printf("%n%s, %d tasks: %d bytes, %d gzipped%n", format, size, payload.length, gzippedSize(payload));
+    }
+
+    private static ObjectMapper mapper(JsonFactory factory, boolean blackbird) {
+        ObjectMapper mapper = new ObjectMapper(factory).registerModule(new JavaTimeModule());
+        return blackbird ? mapper.registerModule(new BlackbirdModule()) : mapper;
+    }
+
+    private static int gzippedSize(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws Exception {
+        return objectMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public List<Task> deserializeList() throws Exception {
+        return objectMapper.readValue(payload, TASK_LIST);
+    }
+}
@@ -0,0 +1,62 @@
+package com.taskmanager.benchmark;
+
+import com.taskmanager.TaskmanagementApplication;
+import com.taskmanager.model.Task;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TaskService CRUD against the H2 test database, through the full Spring/JPA stack.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private Long ownerId;
+    private Long existingId;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(TaskmanagementApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1")
+                .run();
+        taskService = context.getBean(TaskService.class);
+        ownerId = context.getBean(UserRepository.class).findByEmail("test@example.com").orElseThrow().getId();
+        existingId = taskService.createTask(ownerId, new Task(null, "Existing", "Read and updated by benchmarks", false)).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Task> getTaskById() {
+        return taskService.getTaskById(ownerId, existingId);
+    }
+
+    @Benchmark
+    public Task updateTask() {
+        return taskService.updateTask(ownerId, existingId, new Task(null, "Updated", "Updated by benchmark", true));
+    }
+
+    @Benchmark
+    public Task createAndDeleteTask() {
+        Task task = taskService.createTask(ownerId, new Task(null, "Created", "Created by benchmark", false));
+        taskService.deleteTask(ownerId, task.getId());
+        return task;
+    }
+}
@@ -0,0 +1,53 @@
+package com.taskmanager.benchmark;
+
+import com.taskmanager.security.jwt.TokenRevocationList;
+import com.taskmanager.security.jwt.VerifiedToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The revocation check JwtRequestFilter runs on every request, for a token that was never revoked
+ * (the common case) and for one that was.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenRevocationBenchmark {
+
+    @Param({"0", "10000", "100000"})
+    public int revokedTokens;
+
+    private TokenRevocationList revocationList;
+    private VerifiedToken liveToken;
+    private VerifiedToken revokedToken;
+
+    @Setup
+    public void setUp() {
+        long expiresAt = System.currentTimeMillis() + 3_600_000;
+        long issuedAt = System.currentTimeMillis() / 1000;
+        revocationList = new TokenRevocationList(3_600_000, 10_000);
+        for (int i = 0; i < revokedTokens; i++) {
+            revocationList.revokeToken(UUID.randomUUID().toString(), expiresAt);
+            revocationList.revokeIssuedBefore("user" + i + "@example.com", issuedAt);
+        }
+        String revokedId = UUID.randomUUID().toString();
+        revocationList.revokeToken(revokedId, expiresAt);
+        liveToken = new VerifiedToken("bench@example.com", "bench@example.com", UUID.randomUUID().toString(), issuedAt, expiresAt);
+        revokedToken = new VerifiedToken("bench@example.com", "bench@example.com", revokedId, issuedAt, expiresAt);
+    }
+
+    @Benchmark
+    public boolean liveToken() {
+        return revocationList.isRevoked(liveToken);
+    }
+
+    @Benchmark
+    public boolean revokedToken() {
+        return revocationList.isRevoked(revokedToken);
+    }
+}
@@ -0,0 +1,16 @@
+package com.taskmanager.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Async} and {@code @Scheduled} work. Both run on Spring Boot's auto-configured
+ * executors, which switch to virtual threads together with Tomcat when
+ * {@code spring.threads.virtual.enabled=true}.
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig {
+}
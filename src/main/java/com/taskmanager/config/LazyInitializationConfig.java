@@ -0,0 +1,50 @@
+package com.taskmanager.config;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * Makes beans that no request needs at startup lazy, so they are created on first use instead:
+ * springdoc on the first {@code /v3/api-docs} or {@code /swagger-ui} request, outgoing mail on the
+ * first email. Beans are matched by the class name of the bean, or of the configuration class
+ * declaring it, against the prefixes in {@code app.startup.lazy-beans}.
+ * <p>
+ * A lazy bean injected into an eager one is still created at startup, so its injection points
+ * are marked {@code @Lazy} as well.
+ */
+@Configuration(proxyBeanMethods = false)
+public class LazyInitializationConfig {
+
+    private static final String[] DEFAULT_LAZY_BEANS = {
+            "org.springdoc.",
+            "org.springframework.boot.autoconfigure.mail.",
+            "com.taskmanager.service.impl.EmailServiceImpl"
+    };
+
+    @Bean
+    public static BeanFactoryPostProcessor lazyNonCriticalBeans(Environment environment) {
+        List<String> prefixes = List.of(environment.getProperty("app.startup.lazy-beans", String[].class, DEFAULT_LAZY_BEANS));
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                String className = sourceClassName(definition);
+                if (className != null && prefixes.stream().anyMatch(className::startsWith)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    private static String sourceClassName(BeanDefinition definition) {
+        if (definition instanceof AnnotatedBeanDefinition annotated && annotated.getFactoryMethodMetadata() != null) {
+            return annotated.getFactoryMethodMetadata().getDeclaringClassName();
+        }
+        return definition.getBeanClassName();
+    }
+}
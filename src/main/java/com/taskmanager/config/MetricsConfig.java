@@ -0,0 +1,67 @@
+package com.taskmanager.config;
+
+import com.taskmanager.service.UserDetailsCache;
+import com.taskmanager.service.impl.EmailServiceImpl;
+import com.taskmanager.stream.TaskStreamService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the statistics our own components keep internally. HTTP, Hibernate, Spring Data
+ * repository and JVM metrics come from Spring Boot's auto-configuration.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder userDetailsCacheMetrics(UserDetailsCache userDetailsCache) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, userDetailsCache.nativeCache(), "userDetails");
+    }
+
+    @Bean
+    public MeterBinder taskStreamMetrics(TaskStreamService taskStreamService) {
+        return registry -> {
+            Gauge.builder("tasks.stream.subscribers", taskStreamService, TaskStreamService::getSubscriberCount)
+                    .description("Open task change SSE connections")
+                    .register(registry);
+            FunctionCounter.builder("tasks.stream.overflows", taskStreamService, TaskStreamService::getOverflowCount)
+                    .description("Times a slow subscriber's buffer was dropped in favour of a resync event")
+                    .register(registry);
+            FunctionCounter.builder("tasks.stream.stalled", taskStreamService, TaskStreamService::getStalledCount)
+                    .description("Subscribers dropped because a send stayed blocked past the send timeout")
+                    .register(registry);
+        };
+    }
+
+    // Lazy so the mail dispatcher is only started by the first email or metrics scrape.
+    @Bean
+    public MeterBinder emailDispatchMetrics(@Lazy EmailServiceImpl emailService) {
+        return registry -> {
+            Gauge.builder("email.queue.depth", emailService, EmailServiceImpl::getQueueDepth)
+                    .description("Emails waiting to be sent")
+                    .register(registry);
+            FunctionTimer.builder("email.send", emailService,
+                            EmailServiceImpl::getSentCount, EmailServiceImpl::getSendLatencyTotalMillis, TimeUnit.MILLISECONDS)
+                    .description("SMTP send latency of delivered emails")
+                    .register(registry);
+            Gauge.builder("email.send.max", emailService, EmailServiceImpl::getSendLatencyMaxMillis)
+                    .baseUnit("milliseconds")
+                    .description("Slowest SMTP send since startup")
+                    .register(registry);
+            FunctionCounter.builder("email.failed", emailService, EmailServiceImpl::getFailedCount)
+                    .description("Emails dropped after exhausting retries")
+                    .register(registry);
+            FunctionCounter.builder("email.rejected", emailService, EmailServiceImpl::getRejectedCount)
+                    .description("Emails dropped because the queue was full")
+                    .register(registry);
+        };
+    }
+}
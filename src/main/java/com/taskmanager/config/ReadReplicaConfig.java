@@ -0,0 +1,64 @@
+package com.taskmanager.config;
+
+import com.taskmanager.datasource.ReadYourWrites;
+import com.taskmanager.datasource.ReplicaPoolDataSource;
+import com.taskmanager.datasource.WriteTrackingDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Sends read-only transactions to read replicas and everything else to {@code spring.datasource}.
+ * <p>
+ * The application's DataSource is a {@link LazyConnectionDataSourceProxy}: it only fetches a real
+ * connection at the first statement, by which time the transaction manager has marked the
+ * connection read-only or not, and picks the replica pool or the primary from that flag. Replicas
+ * share the primary's driver, credentials and {@code spring.datasource.hikari} settings.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public DataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().build();
+    }
+
+    @Bean
+    public ReplicaPoolDataSource replicaDataSource(DataSourceProperties properties, Environment environment,
+                                                   @Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                                   ReadYourWrites readYourWrites,
+                                                   @Value("${app.datasource.replicas.urls}") List<String> urls,
+                                                   @Value("${app.datasource.replicas.retry-interval-ms:30000}") long retryIntervalMs) {
+        Binder binder = Binder.get(environment);
+        List<ReplicaPoolDataSource.Replica> replicas = urls.stream().map(url -> {
+            DataSource replica = properties.initializeDataSourceBuilder().url(url).build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            return new ReplicaPoolDataSource.Replica(url, replica);
+        }).toList();
+        return new ReplicaPoolDataSource(primaryDataSource, replicas, readYourWrites, retryIntervalMs);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 ReplicaPoolDataSource replicaDataSource, ReadYourWrites readYourWrites) {
+        LazyConnectionDataSourceProxy dataSource =
+                new LazyConnectionDataSourceProxy(new WriteTrackingDataSource(primaryDataSource, readYourWrites));
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,78 @@
+package com.taskmanager.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.taskmanager.entity.Role;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level and query cache backed by Caffeine through JCache. Every region is
+ * created here with its own size and TTL; Hibernate refuses to start if it needs one that is
+ * missing, so a new cached entity cannot silently fall back to an unbounded cache.
+ * <p>
+ * The regions are local to each node and nothing invalidates them across nodes, so only
+ * {@link Role}, which is never updated, is cached. Tasks and users must be read fresh: a stale
+ * version would break ETags, If-Match checks and the versioned soft delete.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Value("${app.jpa.cache.role.max-size:100}")
+    private long roleMaxSize;
+
+    @Value("${app.jpa.cache.role.ttl-seconds:3600}")
+    private long roleTtlSeconds;
+
+    @Value("${app.jpa.cache.query.max-size:1000}")
+    private long queryMaxSize;
+
+    @Value("${app.jpa.cache.query.ttl-seconds:300}")
+    private long queryTtlSeconds;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        // A private URI per application context keeps test contexts from sharing regions.
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("taskmanager-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        createRegion(cacheManager, Role.class.getName(), roleMaxSize, roleTtlSeconds);
+        createRegion(cacheManager, QUERY_RESULTS_REGION, queryMaxSize, queryTtlSeconds);
+        // Update timestamps decide whether a cached query result is stale, so they must never be evicted.
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, 0, 0);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, long maxSize, long ttlSeconds) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maxSize > 0 ? OptionalLong.of(maxSize) : OptionalLong.empty());
+        configuration.setExpireAfterWrite(ttlSeconds > 0
+                ? OptionalLong.of(Duration.ofSeconds(ttlSeconds).toNanos()) : OptionalLong.empty());
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(name, configuration);
+    }
+}
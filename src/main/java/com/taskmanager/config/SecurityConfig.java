@@ -1,7 +1,11 @@
 package com.taskmanager.config;
 
+import com.taskmanager.security.BoundedPasswordEncoder;
+import com.taskmanager.security.TimedPasswordEncoder;
 import com.taskmanager.security.jwt.JwtRequestFilter;
 import com.taskmanager.service.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -14,15 +18,19 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -36,22 +44,42 @@ public class SecurityConfig {
         this.jwtRequestFilter = jwtRequestFilter;
     }
 
+    /**
+     * New hashes use the configured algorithm and cost and carry an {id} prefix. Hashes stored before
+     * the prefix existed are plain BCrypt. Any hash that is not in the current format is upgraded on
+     * the user's next successful login, see {@link #authenticationProvider}.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${app.security.password.encoding:bcrypt}") String encodingId,
+                                           @Value("${app.security.password.bcrypt-strength:10}") int bcryptStrength,
+                                           @Value("${app.security.hashing.threads:0}") int hashingThreads,
+                                           @Value("${app.security.hashing.queue-capacity:100}") int queueCapacity,
+                                           @Value("${app.security.hashing.max-queue-wait-ms:1000}") long maxQueueWaitMs) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(encodingId, Map.of(
+                "bcrypt", bcrypt,
+                "pbkdf2@SpringSecurity_v5_8", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8()));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        // By default half the cores, so a login burst cannot starve the rest of the API.
+        int threads = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new TimedPasswordEncoder(encoder, meterRegistry), threads, queueCapacity,
+                Duration.ofMillis(maxQueueWaitMs), meterRegistry);
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordEncoder(passwordEncoder);
+        // Re-hashes the presented password when upgradeEncoding says the stored hash is outdated.
+        provider.setUserDetailsPasswordService(userDetailsService);
         return provider;
     }
 
     @Bean
-    public AuthenticationManager authenticationManager() {
-        return new ProviderManager(List.of(authenticationProvider()));
+    public AuthenticationManager authenticationManager(AuthenticationProvider authenticationProvider) {
+        return new ProviderManager(List.of(authenticationProvider));
     }
 
     @Bean
@@ -65,11 +93,16 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/testdb/insertuser").permitAll()
                         .requestMatchers(HttpMethod.POST, "/auth/register").permitAll()
                         .requestMatchers(HttpMethod.POST, "/auth/login").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/auth/refresh", "/auth/logout").permitAll()
                         // Added this line to permit POST requests to /auth/forgot-password
                         .requestMatchers(HttpMethod.POST, "/auth/forgot-password").permitAll()
                         // Added this line to permit POST requests to /auth/reset-password
                         .requestMatchers(HttpMethod.POST, "/auth/reset-password").permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                        // Metrics reveal traffic and user activity; the scraper logs in as a user with this role.
+                        .requestMatchers(HttpMethod.GET, "/actuator/prometheus").hasAuthority("METRICS")
+                        .requestMatchers("/admin/**").hasAuthority("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
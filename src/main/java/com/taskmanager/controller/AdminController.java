@@ -0,0 +1,53 @@
+package com.taskmanager.controller;
+
+import com.taskmanager.payload.response.ErrorResponse;
+import com.taskmanager.service.UserImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/admin")
+@Tag(name = "Admin Controller", description = "APIs for administrators")
+public class AdminController {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @PostMapping(path = "/users/import", consumes = "text/csv")
+    @Operation(summary = "Import users from CSV", description = "Creates every valid user in a CSV file with a username,email,password[,roles] header. "
+            + "Roles are names separated by semicolons. Invalid rows are skipped and reported")
+    public ResponseEntity<?> importUsersFromCsv(InputStream body) throws IOException {
+        try {
+            return ResponseEntity.ok(userImportService.importCsv(body));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return importRunning(e);
+        }
+    }
+
+    @PostMapping(path = "/users/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Import users from NDJSON", description = "Creates every valid user in a stream of JSON objects with username, email, password "
+            + "and an optional roles array. Invalid rows are skipped and reported")
+    public ResponseEntity<?> importUsersFromNdjson(InputStream body) throws IOException {
+        try {
+            return ResponseEntity.ok(userImportService.importNdjson(body));
+        } catch (IllegalStateException e) {
+            return importRunning(e);
+        }
+    }
+
+    private ResponseEntity<ErrorResponse> importRunning(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse(e.getMessage()));
+    }
+}
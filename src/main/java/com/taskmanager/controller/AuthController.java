@@ -1,22 +1,32 @@
 package com.taskmanager.controller;
 
-import com.taskmanager.entity.PasswordResetToken;
+import com.taskmanager.datasource.ReadYourWrites;
 import com.taskmanager.entity.User;
 import com.taskmanager.payload.request.ForgotPasswordRequest;
 import com.taskmanager.payload.request.LoginRequest;
+import com.taskmanager.payload.request.RefreshTokenRequest;
 import com.taskmanager.payload.request.RegisterRequest;
 import com.taskmanager.payload.request.ResetPasswordRequest;
 import com.taskmanager.payload.response.ErrorResponse;
 import com.taskmanager.payload.response.JwtResponse;
-import com.taskmanager.repository.PasswordResetTokenRepository;
 import com.taskmanager.repository.RoleRepository;
 import com.taskmanager.repository.UserRepository;
+import com.taskmanager.security.AuthenticatedUser;
+import com.taskmanager.security.PasswordHashingRejectedException;
 import com.taskmanager.security.jwt.JwtUtil;
+import com.taskmanager.security.jwt.VerifiedToken;
 import com.taskmanager.service.EmailService;
+import com.taskmanager.service.LoginThrottleService;
+import com.taskmanager.service.PasswordResetTokenStore;
+import com.taskmanager.service.RefreshTokenStore;
+import com.taskmanager.service.TokenRevocationService;
+import com.taskmanager.service.UserDetailsCache;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -30,18 +40,17 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.UUID;
 
 @RestController
 @RequestMapping("/auth")
@@ -53,32 +62,48 @@ public class AuthController {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
-
-    private final Map<String, Integer> failedLoginAttempts = new HashMap<>();
-    private static final int MAX_FAILED_ATTEMPTS = 6;
+    private final UserDetailsCache userDetailsCache;
+    private final LoginThrottleService loginThrottleService;
 
     @Autowired
-    private PasswordResetTokenRepository passwordResetTokenRepository;
+    private PasswordResetTokenStore passwordResetTokenStore;
 
+    @Lazy
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
     @Value("${app.frontend.url}")
     private String frontendUrl;
 
+    @Value("${app.security.hashing.retry-after-seconds:2}")
+    private long hashingRetryAfterSeconds;
+
     @Autowired
     public AuthController(AuthenticationManager authenticationManager, UserDetailsService userDetailsService,
                           JwtUtil jwtUtil, UserRepository userRepository, RoleRepository roleRepository,
-                          PasswordEncoder passwordEncoder, PasswordResetTokenRepository passwordResetTokenRepository,
-                          EmailService emailService, @Value("${app.frontend.url}") String frontendUrl) {
+                          PasswordEncoder passwordEncoder, PasswordResetTokenStore passwordResetTokenStore,
+                          @Lazy EmailService emailService, UserDetailsCache userDetailsCache,
+                          LoginThrottleService loginThrottleService,
+                          @Value("${app.frontend.url}") String frontendUrl) {
         this.authenticationManager = authenticationManager;
         this.userDetailsService = userDetailsService;
         this.jwtUtil = jwtUtil;
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
-        this.passwordResetTokenRepository = passwordResetTokenRepository;
+        this.passwordResetTokenStore = passwordResetTokenStore;
         this.emailService = emailService;
+        this.userDetailsCache = userDetailsCache;
+        this.loginThrottleService = loginThrottleService;
         this.frontendUrl = frontendUrl;
     }
 
@@ -91,7 +116,7 @@ public class AuthController {
 
         String email = loginRequest.getEmail();
 
-        if (failedLoginAttempts.containsKey(email) && failedLoginAttempts.get(email) >= MAX_FAILED_ATTEMPTS) {
+        if (loginThrottleService.isBlocked(email)) {
             return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
                     .body(new ErrorResponse("Too many failed login attempts. Please use 'Forgot your password' functionality."));
         }
@@ -103,19 +128,53 @@ public class AuthController {
 
             final UserDetails userDetails = userDetailsService.loadUserByUsername(email);
             final String token = jwtUtil.generateToken(userDetails);
+            final String refreshToken = refreshTokenStore.issue(((AuthenticatedUser) userDetails).getId(), userDetails.getUsername());
 
-            failedLoginAttempts.remove(email);
+            loginThrottleService.reset(email);
 
-            return ResponseEntity.ok(new JwtResponse(token));
+            return ResponseEntity.ok(new JwtResponse(token, refreshToken));
 
         } catch (BadCredentialsException e) {
-            failedLoginAttempts.put(email, failedLoginAttempts.getOrDefault(email, 0) + 1);
+            loginThrottleService.recordFailure(email);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new ErrorResponse("Invalid email or password"));
         } catch (AuthenticationException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new ErrorResponse("Authentication failed"));
         }
     }
 
+    // Renewing a session is a keyed lookup plus a signature, without the password check of a login.
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest, BindingResult result) {
+        if (result.hasErrors()) {
+            FieldError error = result.getFieldError();
+            return ResponseEntity.badRequest().body(new ErrorResponse("Validation error: " + (error != null ? error.getDefaultMessage() : "Invalid input")));
+        }
+
+        return refreshTokenStore.rotate(refreshTokenRequest.getRefreshToken())
+                .<ResponseEntity<?>>map(rotation -> ResponseEntity.ok(new JwtResponse(jwtUtil.generateToken(rotation.subject()), rotation.token())))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new ErrorResponse("Invalid or expired refresh token")));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest, BindingResult result,
+                                    HttpServletRequest request) {
+        if (result.hasErrors()) {
+            FieldError error = result.getFieldError();
+            return ResponseEntity.badRequest().body(new ErrorResponse("Validation error: " + (error != null ? error.getDefaultMessage() : "Invalid input")));
+        }
+
+        refreshTokenStore.revoke(refreshTokenRequest.getRefreshToken());
+        // The access token sent along is revoked too rather than left valid until it expires.
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            VerifiedToken accessToken = jwtUtil.verify(authorization.substring(7));
+            if (accessToken != null && accessToken.id() != null) {
+                tokenRevocationService.revokeToken(accessToken.id(), accessToken.expiresAtMillis());
+            }
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     @Transactional
     @PostMapping("/register")
     public ResponseEntity<String> register(@Valid @RequestBody RegisterRequest registerRequest, BindingResult result) {
@@ -161,6 +220,8 @@ public class AuthController {
             user.setRoles(userRoles);
             userRepository.save(user);
             return ResponseEntity.status(HttpStatus.CREATED).body("User registered successfully!");
+        } catch (PasswordHashingRejectedException e) {
+            throw e;
         } catch (Exception e) {
             System.err.println("Error during user registration: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to register user. Please try again.");
@@ -183,19 +244,8 @@ public class AuthController {
             return ResponseEntity.ok(new ErrorResponse("If an account with that email exists, a password reset link has been sent."));
         }
 
-        PasswordResetToken existingToken = passwordResetTokenRepository.findByUserAndExpiryDateAfter(user, LocalDateTime.now()).orElse(null);
-
-        if (existingToken != null) {
-            System.out.println("Found an existing active reset token for user: " + user.getEmail() + ". Invalidating it.");
-            passwordResetTokenRepository.delete(existingToken);
-        }
-
-        String token = UUID.randomUUID().toString();
-        PasswordResetToken resetToken = new PasswordResetToken();
-        resetToken.setToken(token);
-        resetToken.setUser(user);
-        resetToken.setExpiryDate(LocalDateTime.now().plusHours(1));
-        passwordResetTokenRepository.save(resetToken);
+        // Replaces any token issued to this user before.
+        String token = passwordResetTokenStore.issue(user.getId());
 
         // Apply the change here:
         System.out.println("Raw frontendUrl from config: \"" + frontendUrl + "\"");
@@ -223,21 +273,33 @@ public class AuthController {
         String token = resetPasswordRequest.getToken();
         String newPassword = resetPasswordRequest.getPassword();
 
-        PasswordResetToken resetToken = passwordResetTokenRepository.findByToken(token).orElse(null);
+        // Hashed before the token is redeemed: a busy hashing executor answers 503 and the token survives the retry.
+        String newHash = passwordEncoder.encode(newPassword);
+        // Redeeming consumes the token, so it cannot be used twice even by concurrent requests.
+        User user = passwordResetTokenStore.redeem(token).flatMap(userRepository::findById).orElse(null);
 
-        if (resetToken == null || resetToken.getExpiryDate().isBefore(LocalDateTime.now())) {
+        if (user == null) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorResponse("Invalid or expired password reset token."));
         }
 
-        User user = resetToken.getUser();
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
-
-        passwordResetTokenRepository.delete(resetToken);
+        user.setPassword(newHash);
+        // Attributed to the user so their next login reads the new hash from the primary.
+        readYourWrites.as(user.getEmail(), () -> userRepository.save(user));
+        userDetailsCache.evict(user.getEmail());
+        refreshTokenStore.revokeAll(user.getId());
+        tokenRevocationService.revokeIssuedBefore(user.getEmail(), Instant.now().getEpochSecond());
 
         return ResponseEntity.ok(new ErrorResponse("Your password has been reset successfully. You can now log in with your new password."));
     }
 
+    // Login, register and reset all hash on the bounded executor; when it is saturated the client should back off.
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<ErrorResponse> hashingRejected(PasswordHashingRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(hashingRetryAfterSeconds))
+                .body(new ErrorResponse("The server is busy. Please try again shortly."));
+    }
+
     public static class ErrorResponse {
         private String message;
 
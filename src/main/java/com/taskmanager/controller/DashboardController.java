@@ -0,0 +1,28 @@
+package com.taskmanager.controller;
+
+import com.taskmanager.dashboard.TaskDashboard;
+import com.taskmanager.payload.response.DashboardResponse;
+import com.taskmanager.security.AuthenticatedUser;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/dashboard")
+@Tag(name = "Dashboard Controller", description = "APIs for task summaries")
+public class DashboardController {
+
+    @Autowired
+    private TaskDashboard taskDashboard;
+
+    @GetMapping
+    @Operation(summary = "Get the dashboard", description = "Total, completed and pending task counts and the latest task changes, "
+            + "served from memory without reading the tasks")
+    public DashboardResponse getDashboard(@AuthenticationPrincipal AuthenticatedUser user) {
+        return taskDashboard.get(user.getId());
+    }
+}
@@ -1,12 +1,36 @@
 package com.taskmanager.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.taskmanager.model.Task;
+import com.taskmanager.payload.request.TaskPatchRequest;
+import com.taskmanager.payload.response.ErrorResponse;
+import com.taskmanager.payload.response.TaskChangesResponse;
+import com.taskmanager.payload.response.TaskPageResponse;
+import com.taskmanager.payload.response.TaskCountResponse;
+import com.taskmanager.search.TaskSearchIndex;
+import com.taskmanager.security.AuthenticatedUser;
+import com.taskmanager.service.TaskNotFoundException;
 import com.taskmanager.service.TaskService;
+import com.taskmanager.stream.TaskStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,37 +39,244 @@ import java.util.Optional;
 @Tag(name = "Task Controller", description = "APIs for managing tasks")
 public class TaskController {
 
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+
+    @Autowired
+    private TaskStreamService taskStreamService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ContentNegotiationManager contentNegotiationManager;
+
+    @Value("${app.tasks.batch.max-size:5000}")
+    private int maxBatchSize;
+
     @GetMapping
-    @Operation(summary = "Get all tasks", description = "Fetches a list of all tasks")
-    public List<Task> getAllTasks() {
-        return taskService.getAllTasks();
+    @Operation(summary = "Get all tasks", description = "Fetches the current user's tasks. Answers 304 if If-None-Match still matches the list's ETag")
+    public ResponseEntity<List<Task>> getAllTasks(@AuthenticationPrincipal AuthenticatedUser user, NativeWebRequest request) {
+        // Weak, unlike a single task's: Tomcat never gzips a strongly tagged response, and listings are what gets large.
+        String eTag = "W/" + representationTag(taskService.getListState(user.getId()).eTag(), request);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(taskService.getAllTasks(user.getId()));
+    }
+
+    @GetMapping("/changes")
+    @Operation(summary = "Get task changes", description = "Fetches tasks changed and IDs deleted after the since watermark (epoch milliseconds). Answers 410 if the watermark is too old")
+    public ResponseEntity<?> getChanges(@AuthenticationPrincipal AuthenticatedUser user, @RequestParam long since) {
+        Optional<TaskChangesResponse> changes = taskService.getChangesSince(user.getId(), since);
+        if (changes.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.GONE)
+                    .body(new ErrorResponse("Changes since " + since + " are no longer available; reload all tasks"));
+        }
+        return ResponseEntity.ok(changes.get());
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "Get a page of tasks", description = "Fetches up to size tasks with an ID greater than the after cursor, optionally only completed or open ones")
+    public TaskPageResponse getTaskPage(@AuthenticationPrincipal AuthenticatedUser user,
+                                        @RequestParam(required = false) Long after,
+                                        @RequestParam(required = false) Integer size,
+                                        @RequestParam(required = false) Boolean completed) {
+        return taskService.getTaskPage(user.getId(), after, size, completed);
+    }
+
+    @GetMapping("/count")
+    @Operation(summary = "Count tasks", description = "Counts the current user's tasks, optionally only completed or open ones")
+    public TaskCountResponse countTasks(@AuthenticationPrincipal AuthenticatedUser user,
+                                        @RequestParam(required = false) Boolean completed) {
+        return new TaskCountResponse(taskService.countTasks(user.getId(), completed));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search tasks", description = "Full-text search over task titles and descriptions, best matches first. A trailing * matches a prefix")
+    public List<Task> searchTasks(@AuthenticationPrincipal AuthenticatedUser user,
+                                  @RequestParam String q,
+                                  @RequestParam(defaultValue = "20") int limit) {
+        return taskService.getTasksByIds(user.getId(), taskSearchIndex.search(user.getId(), q, limit));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all tasks", description = "Streams every task as newline-delimited JSON in constant memory")
+    public ResponseEntity<StreamingResponseBody> streamAllTasks(@AuthenticationPrincipal AuthenticatedUser user) {
+        Long ownerId = user.getId();
+        StreamingResponseBody body = out -> taskService.streamTasks(ownerId, task -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(task));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to task changes", description = "Server-sent events for every created, updated and deleted task. "
+            + "A resync event means changes were dropped; catch up with /tasks/changes using the resync event's ID as since")
+    public ResponseEntity<SseEmitter> streamTaskChanges(@AuthenticationPrincipal AuthenticatedUser user) {
+        SseEmitter emitter = taskStreamService.subscribe(user.getId());
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        // Stops reverse proxies such as nginx from buffering the stream.
+        return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get task by ID", description = "Fetches a task by its ID")
-    public Optional<Task> getTaskById(@PathVariable Long id) {
-        return taskService.getTaskById(id);
+    @Operation(summary = "Get task by ID", description = "Fetches a task by its ID. Answers 304 if If-None-Match still matches the task's version")
+    public ResponseEntity<Task> getTaskById(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable Long id, NativeWebRequest request) {
+        Optional<Task> task = taskService.getTaskById(user.getId(), id);
+        if (task.isEmpty()) {
+            return ResponseEntity.ok().build();
+        }
+        String eTag = representationTag("\"" + task.get().getVersion() + "\"", request);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(task.get());
+    }
+
+    @RequestMapping(path = "/{id}", method = RequestMethod.HEAD)
+    @Operation(summary = "Check a task exists", description = "Answers 200 if the current user has a task with this ID, otherwise 404")
+    public ResponseEntity<Void> taskExists(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable Long id) {
+        return taskService.taskExists(user.getId(), id) ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
     }
 
     @PostMapping
     @Operation(summary = "Create a new task", description = "Creates a new task with title, description, and status")
-    public Task createTask(@RequestBody Task task) {
-        return taskService.createTask(task);
+    public Task createTask(@AuthenticationPrincipal AuthenticatedUser user, @RequestBody Task task) {
+        return taskService.createTask(user.getId(), task);
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Update a task", description = "Updates an existing task by ID")
-    public Task updateTask(@PathVariable Long id, @RequestBody Task task) {
-        return taskService.updateTask(id, task);
+    public Task updateTask(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable Long id, @RequestBody Task task) {
+        return taskService.updateTask(user.getId(), id, task);
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Patch a task", description = "Updates only the fields present in the body. With If-Match set to the task's ETag, "
+            + "answers 409 if the task has changed since, and 400 if If-Match is not an ETag of a task")
+    public ResponseEntity<?> patchTask(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable Long id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                       @RequestBody TaskPatchRequest patch, NativeWebRequest request) {
+        Long expectedVersion;
+        try {
+            expectedVersion = parseVersion(ifMatch);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("If-Match is not an ETag of a task: " + ifMatch));
+        }
+        Optional<Task> task;
+        try {
+            task = taskService.patchTask(user.getId(), id, patch, expectedVersion);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ErrorResponse("Task " + id + " was modified concurrently; reload it and retry"));
+        }
+        if (task.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse("Task not found"));
+        }
+        return ResponseEntity.ok()
+                .eTag(representationTag("\"" + task.get().getVersion() + "\"", request))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(task.get());
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a task", description = "Deletes a task by ID")
-    public String deleteTask(@PathVariable Long id) {
-        taskService.deleteTask(id);
+    public String deleteTask(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable Long id) {
+        taskService.deleteTask(user.getId(), id);
         return "Task deleted successfully";
     }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Create tasks in bulk", description = "Creates all given tasks in a single transaction")
+    public ResponseEntity<?> createTasks(@AuthenticationPrincipal AuthenticatedUser user, @RequestBody List<Task> tasks) {
+        if (tasks.size() > maxBatchSize) {
+            return batchTooLarge();
+        }
+        return ResponseEntity.ok(taskService.createTasks(user.getId(), tasks));
+    }
+
+    @PutMapping("/batch")
+    @Operation(summary = "Update tasks in bulk", description = "Updates all given tasks by ID in a single transaction. "
+            + "Answers 404 and changes nothing if any of them is missing")
+    public ResponseEntity<?> updateTasks(@AuthenticationPrincipal AuthenticatedUser user, @RequestBody List<Task> tasks) {
+        if (tasks.size() > maxBatchSize) {
+            return batchTooLarge();
+        }
+        return ResponseEntity.ok(taskService.updateTasks(user.getId(), tasks));
+    }
+
+    @DeleteMapping("/batch")
+    @Operation(summary = "Delete tasks in bulk", description = "Deletes all tasks with the given IDs in a single statement")
+    public ResponseEntity<?> deleteTasks(@AuthenticationPrincipal AuthenticatedUser user, @RequestBody List<Long> ids) {
+        if (ids.size() > maxBatchSize) {
+            return batchTooLarge();
+        }
+        taskService.deleteTasks(user.getId(), ids);
+        return ResponseEntity.ok("Tasks deleted successfully");
+    }
+
+    // ETags are the quoted version, suffixed for Smile and CBOR; null or * means the client does
+    // not care which version it overwrites.
+    private static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        tag = tag.replace("\"", "");
+        int suffix = tag.indexOf('-');
+        return Long.valueOf(suffix < 0 ? tag : tag.substring(0, suffix));
+    }
+
+    /**
+     * Gives each representation of a resource its own entity tag, since JSON, Smile and CBOR bodies
+     * differ byte for byte. The format is picked the way the message converters pick it: the first
+     * accepted type that one of them writes, with JSON for anything else. JSON keeps the plain tag.
+     */
+    private String representationTag(String quotedTag, NativeWebRequest request) {
+        List<MediaType> accepted;
+        try {
+            accepted = contentNegotiationManager.resolveMediaTypes(request);
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            return quotedTag;
+        }
+        for (MediaType mediaType : accepted) {
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return quotedTag;
+            }
+            if (mediaType.isCompatibleWith(SMILE)) {
+                return quotedTag.substring(0, quotedTag.length() - 1) + "-smile\"";
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return quotedTag.substring(0, quotedTag.length() - 1) + "-cbor\"";
+            }
+        }
+        return quotedTag;
+    }
+
+    @ExceptionHandler(TaskNotFoundException.class)
+    public ResponseEntity<ErrorResponse> taskNotFound(TaskNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(e.getMessage()));
+    }
+
+    private ResponseEntity<ErrorResponse> batchTooLarge() {
+        return ResponseEntity.badRequest().body(new ErrorResponse("Batch size exceeds the limit of " + maxBatchSize));
+    }
 }
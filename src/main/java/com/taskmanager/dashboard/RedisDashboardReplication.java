@@ -0,0 +1,125 @@
+package com.taskmanager.dashboard;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.event.TaskChangedEvent;
+import com.taskmanager.payload.response.DashboardResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps every node's {@link TaskDashboard} current with changes committed on the others. Each
+ * node publishes the deltas of its own changes on a Redis channel and applies the deltas of every
+ * other node. Messages missed while Redis or the subscription was down are not replayed; the
+ * periodic reconciliation corrects the counts.
+ */
+@Component
+@ConditionalOnProperty(name = "app.dashboard.replication", havingValue = "redis")
+public class RedisDashboardReplication implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisDashboardReplication.class);
+
+    private static final String CHANNEL = "task-dashboard";
+
+    private final StringRedisTemplate redisTemplate;
+    private final TaskDashboard taskDashboard;
+    private final ObjectMapper objectMapper;
+    // Redis delivers a node's own messages back to it; they were applied when they were published.
+    private final String nodeId = UUID.randomUUID().toString();
+    private RedisMessageListenerContainer listenerContainer;
+
+    public RedisDashboardReplication(StringRedisTemplate redisTemplate, TaskDashboard taskDashboard, ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.taskDashboard = taskDashboard;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void start() {
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisTemplate.getRequiredConnectionFactory());
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        listenerContainer.afterPropertiesSet();
+        subscribe();
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        listenerContainer.destroy();
+    }
+
+    public void publish(TaskDashboard.Delta delta) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(DeltaMessage.of(nodeId, delta)));
+        } catch (JsonProcessingException | DataAccessException e) {
+            logger.warn("Could not replicate dashboard change of user {}, other nodes catch up at reconciliation: {}",
+                    delta.ownerId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            DeltaMessage received = objectMapper.readValue(message.getBody(), DeltaMessage.class);
+            if (!nodeId.equals(received.origin())) {
+                taskDashboard.apply(received.toDelta());
+            }
+        } catch (IOException e) {
+            logger.warn("Ignoring malformed dashboard message: {}", e.getMessage());
+        }
+    }
+
+    // Starts the subscription once Redis is reachable; a node still starts without it.
+    @Scheduled(fixedDelayString = "${app.dashboard.resubscribe-interval-ms:60000}",
+            initialDelayString = "${app.dashboard.resubscribe-interval-ms:60000}")
+    public void subscribe() {
+        try {
+            if (!listenerContainer.isRunning()) {
+                listenerContainer.start();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not subscribe to dashboard changes: {}", e.getMessage());
+        }
+    }
+
+    record DeltaMessage(String origin, Long ownerId, long total, long completed, List<ActivityMessage> activity) {
+
+        static DeltaMessage of(String origin, TaskDashboard.Delta delta) {
+            return new DeltaMessage(origin, delta.ownerId(), delta.total(), delta.completed(),
+                    delta.activity().stream().map(ActivityMessage::of).toList());
+        }
+
+        TaskDashboard.Delta toDelta() {
+            return new TaskDashboard.Delta(ownerId, total, completed,
+                    activity.stream().map(ActivityMessage::toActivity).toList());
+        }
+    }
+
+    record ActivityMessage(TaskChangedEvent.Type type, Long taskId, String title, Boolean completed, Instant at) {
+
+        static ActivityMessage of(DashboardResponse.Activity activity) {
+            return new ActivityMessage(activity.getType(), activity.getTaskId(), activity.getTitle(),
+                    activity.getCompleted(), activity.getAt());
+        }
+
+        DashboardResponse.Activity toActivity() {
+            return new DashboardResponse.Activity(type, taskId, title, completed, at);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.taskmanager.dashboard;
+
+import com.taskmanager.event.TaskChangedEvent;
+import com.taskmanager.model.OwnerTaskCounts;
+import com.taskmanager.model.Task;
+import com.taskmanager.payload.response.DashboardResponse;
+import com.taskmanager.service.TaskService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per-user task counts and recent activity, kept in memory so {@code GET /dashboard} is a map lookup.
+ * <p>
+ * Committed {@link TaskChangedEvent}s move the counts; each user's state is an immutable snapshot
+ * swapped with compare-and-set, so writers never block each other or readers. A periodic
+ * reconciliation recounts every user in the database and corrects any drift. It only overwrites
+ * a snapshot that no event touched while the recount ran, since such an event may or may not be
+ * part of the recount.
+ * <p>
+ * Events only fire on the node that made the change. With {@code app.dashboard.replication=redis},
+ * {@link RedisDashboardReplication} passes each {@link Delta} to the other nodes, which
+ * {@link #apply(Delta) apply} it as if the change had been local; otherwise other nodes' writes
+ * only show up at the next reconciliation, and never in the recent activity.
+ */
+@Component
+public class TaskDashboard {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskDashboard.class);
+
+    private final TaskService taskService;
+    // Looked up per change: the replication depends on this dashboard to apply what it receives.
+    private final ObjectProvider<RedisDashboardReplication> replication;
+    private final int recentActivitySize;
+    private final Map<Long, AtomicReference<Snapshot>> owners = new ConcurrentHashMap<>();
+
+    public TaskDashboard(TaskService taskService, ObjectProvider<RedisDashboardReplication> replication,
+                         @Value("${app.dashboard.recent-activity-size:10}") int recentActivitySize) {
+        this.taskService = taskService;
+        this.replication = replication;
+        this.recentActivitySize = recentActivitySize;
+    }
+
+    public DashboardResponse get(Long ownerId) {
+        AtomicReference<Snapshot> state = owners.get(ownerId);
+        Snapshot snapshot = state == null ? Snapshot.EMPTY : state.get();
+        return new DashboardResponse(snapshot.total, snapshot.completed, snapshot.recentActivity);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        Delta delta = delta(event);
+        apply(delta);
+        replication.ifAvailable(redis -> redis.publish(delta));
+    }
+
+    /**
+     * What one committed change does to its owner's dashboard. Activity is oldest first and holds at
+     * most as many entries as the dashboard shows.
+     */
+    public Delta delta(TaskChangedEvent event) {
+        Instant now = Instant.now();
+        List<DashboardResponse.Activity> activity = new ArrayList<>();
+        if (event.type() == TaskChangedEvent.Type.DELETED) {
+            for (Long id : event.taskIds()) {
+                activity.add(new DashboardResponse.Activity(event.type(), id, null, null, now));
+            }
+        } else {
+            for (Task task : event.tasks()) {
+                activity.add(new DashboardResponse.Activity(event.type(), task.getId(), task.getTitle(), task.isCompleted(), now));
+            }
+        }
+        long totalDelta = switch (event.type()) {
+            case CREATED -> event.taskIds().size();
+            case DELETED -> -event.taskIds().size();
+            case UPDATED -> 0;
+        };
+        int keep = Math.min(activity.size(), recentActivitySize);
+        return new Delta(event.ownerId(), totalDelta, event.completedDelta(),
+                List.copyOf(activity.subList(activity.size() - keep, activity.size())));
+    }
+
+    public void apply(Delta delta) {
+        state(delta.ownerId()).updateAndGet(snapshot ->
+                snapshot.apply(delta.total(), delta.completed(), delta.activity(), recentActivitySize));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reconcile();
+    }
+
+    /**
+     * Recounts every user's tasks with one grouped query and replaces the counts of users whose
+     * snapshot did not change meanwhile. Users who were busy are recounted once more on their own;
+     * if they are still busy their counts stay as they are until the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.reconcile-interval-ms:300000}",
+            initialDelayString = "${app.dashboard.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long start = System.nanoTime();
+        Map<Long, Snapshot> before = new HashMap<>();
+        owners.forEach((ownerId, state) -> before.put(ownerId, state.get()));
+
+        Map<Long, OwnerTaskCounts> counts = new HashMap<>();
+        for (OwnerTaskCounts ownerCounts : taskService.getTaskCountsByOwner()) {
+            counts.put(ownerCounts.ownerId(), ownerCounts);
+        }
+
+        int corrected = 0;
+        List<Long> busy = new ArrayList<>();
+        for (Long ownerId : union(before, counts)) {
+            OwnerTaskCounts actual = counts.getOrDefault(ownerId, new OwnerTaskCounts(ownerId, 0, 0));
+            Snapshot expected = before.get(ownerId);
+            if (expected == null) {
+                // First sight of this owner; an event may have created the entry during the query.
+                if (owners.putIfAbsent(ownerId, new AtomicReference<>(Snapshot.EMPTY.withCounts(actual))) != null) {
+                    busy.add(ownerId);
+                }
+                continue;
+            }
+            if (expected.matches(actual)) {
+                continue;
+            }
+            if (state(ownerId).compareAndSet(expected, expected.withCounts(actual))) {
+                corrected++;
+            } else {
+                busy.add(ownerId);
+            }
+        }
+        for (Long ownerId : busy) {
+            AtomicReference<Snapshot> state = state(ownerId);
+            Snapshot expected = state.get();
+            OwnerTaskCounts actual = taskService.getTaskCounts(ownerId);
+            if (!expected.matches(actual) && state.compareAndSet(expected, expected.withCounts(actual))) {
+                corrected++;
+            }
+        }
+        if (corrected > 0) {
+            logger.info("Corrected dashboard counts of {} users", corrected);
+        }
+        logger.debug("Reconciled dashboard counts of {} users in {} ms", counts.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private AtomicReference<Snapshot> state(Long ownerId) {
+        return owners.computeIfAbsent(ownerId, id -> new AtomicReference<>(Snapshot.EMPTY));
+    }
+
+    private static List<Long> union(Map<Long, ?> first, Map<Long, ?> second) {
+        List<Long> ids = new ArrayList<>(first.keySet());
+        second.keySet().stream().filter(id -> !first.containsKey(id)).forEach(ids::add);
+        return ids;
+    }
+
+    public record Delta(Long ownerId, long total, long completed, List<DashboardResponse.Activity> activity) {
+    }
+
+    private record Snapshot(long total, long completed, List<DashboardResponse.Activity> recentActivity) {
+
+        static final Snapshot EMPTY = new Snapshot(0, 0, List.of());
+
+        Snapshot apply(long totalDelta, long completedDelta, List<DashboardResponse.Activity> activity, int maxActivity) {
+            List<DashboardResponse.Activity> recent = new ArrayList<>(maxActivity);
+            for (int i = activity.size() - 1; i >= 0 && recent.size() < maxActivity; i--) {
+                recent.add(activity.get(i));
+            }
+            for (int i = 0; i < recentActivity.size() && recent.size() < maxActivity; i++) {
+                recent.add(recentActivity.get(i));
+            }
+            return new Snapshot(total + totalDelta, completed + completedDelta, List.copyOf(recent));
+        }
+
+        Snapshot withCounts(OwnerTaskCounts counts) {
+            return new Snapshot(counts.total(), counts.completed(), recentActivity);
+        }
+
+        boolean matches(OwnerTaskCounts counts) {
+            return total == counts.total() && completed == counts.completed();
+        }
+    }
+}
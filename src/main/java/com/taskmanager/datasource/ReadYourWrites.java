@@ -0,0 +1,137 @@
+package com.taskmanager.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Remembers which users committed a write in the last few seconds, so their reads skip the
+ * replicas until replication has caught up with them.
+ * <p>
+ * A read or write belongs to the authenticated user, or to the subject set with {@link #as} for
+ * work done on behalf of a user who is not logged in yet, such as loading them during login.
+ * <p>
+ * With the redis sticky store every write also sets a key that expires with the window, so the
+ * user's next request reads its own write whichever node serves it. Each node checks its own
+ * writers first and only asks Redis about the rest. While Redis cannot be reached nobody can tell
+ * who wrote elsewhere, so every read goes to the primary until the back-off has elapsed.
+ */
+@Component
+public class ReadYourWrites {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadYourWrites.class);
+    private static final String KEY_PREFIX = "read-your-writes:";
+    private static final ThreadLocal<String> SUBJECT = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> recentWriters;
+    private final StringRedisTemplate redisTemplate;
+    private final Duration stickyWindow;
+    private final long retryBackoffMillis;
+
+    private volatile long redisRetryAt;
+
+    /**
+     * Only remembers writers on this node.
+     */
+    public ReadYourWrites(long stickyWindowMs, long maxUsers) {
+        this(null, "local", stickyWindowMs, maxUsers, 0);
+    }
+
+    @Autowired
+    public ReadYourWrites(StringRedisTemplate redisTemplate,
+                          @Value("${app.datasource.replicas.sticky-store:redis}") String store,
+                          @Value("${app.datasource.replicas.sticky-window-ms:5000}") long stickyWindowMs,
+                          @Value("${app.datasource.replicas.sticky-max-users:100000}") long maxUsers,
+                          @Value("${app.datasource.replicas.redis-retry-seconds:30}") long retrySeconds) {
+        this.stickyWindow = Duration.ofMillis(stickyWindowMs);
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickyWindow)
+                .maximumSize(maxUsers)
+                .build();
+        this.redisTemplate = "redis".equalsIgnoreCase(store) ? redisTemplate : null;
+        this.retryBackoffMillis = Duration.ofSeconds(retrySeconds).toMillis();
+    }
+
+    public <T> T as(String subject, Supplier<T> work) {
+        String previous = SUBJECT.get();
+        SUBJECT.set(subject);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                SUBJECT.remove();
+            } else {
+                SUBJECT.set(previous);
+            }
+        }
+    }
+
+    public String currentSubject() {
+        String subject = SUBJECT.get();
+        if (subject != null) {
+            return subject;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    public void recordWrite(String subject) {
+        if (subject == null) {
+            return;
+        }
+        recentWriters.put(subject, Boolean.TRUE);
+        if (redisAvailable()) {
+            try {
+                redisTemplate.opsForValue().set(KEY_PREFIX + subject, "1", stickyWindow);
+            } catch (DataAccessException e) {
+                redisFailed(e);
+            }
+        }
+    }
+
+    public boolean wroteRecently() {
+        String subject = currentSubject();
+        if (subject == null) {
+            return false;
+        }
+        if (recentWriters.getIfPresent(subject) != null) {
+            return true;
+        }
+        if (redisTemplate == null) {
+            return false;
+        }
+        if (!redisAvailable()) {
+            return true;
+        }
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + subject));
+        } catch (DataAccessException e) {
+            redisFailed(e);
+            return true;
+        }
+    }
+
+    private boolean redisAvailable() {
+        return redisTemplate != null && System.currentTimeMillis() >= redisRetryAt;
+    }
+
+    private void redisFailed(DataAccessException e) {
+        redisRetryAt = System.currentTimeMillis() + retryBackoffMillis;
+        logger.warn("Redis unavailable for read-your-writes, reading from the primary: {}", e.getMessage());
+    }
+}
@@ -0,0 +1,90 @@
+package com.taskmanager.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connections for read-only transactions, taken round-robin from the replicas.
+ * <p>
+ * Users who wrote recently (see {@link ReadYourWrites}) get the primary instead. A replica that
+ * refuses a connection is skipped until the retry interval has passed; when none is available
+ * reads fall back to the primary.
+ */
+public class ReplicaPoolDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaPoolDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWrites readYourWrites;
+    private final long retryIntervalMillis;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaPoolDataSource(DataSource primary, List<Replica> replicas, ReadYourWrites readYourWrites,
+                                 long retryIntervalMillis) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.readYourWrites = readYourWrites;
+        this.retryIntervalMillis = retryIntervalMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (readYourWrites.wroteRecently()) {
+            return primary.getConnection();
+        }
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, replicas.size()));
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.downUntil > now) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.downUntil = now + retryIntervalMillis;
+                logger.warn("Read replica {} is unavailable, retrying it in {} ms: {}", replica.name, retryIntervalMillis, e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Replica connections use the configured credentials");
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    logger.warn("Could not close read replica {}", replica.name, e);
+                }
+            }
+        }
+    }
+
+    public static class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile long downUntil;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
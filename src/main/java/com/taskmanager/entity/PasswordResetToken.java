@@ -5,17 +5,22 @@ import java.time.LocalDateTime;
 
 
 @Entity
+@Table(name = "password_reset_token", indexes = {
+        @Index(name = "idx_password_reset_token_expiry", columnList = "expiry_date")
+})
 public class PasswordResetToken {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Column(nullable = false, unique = true, length = 36) // Unique index: redeeming is a single index lookup
     private String token;
 
-    @OneToOne(fetch = FetchType.EAGER)
+    @OneToOne(fetch = FetchType.LAZY) // Only the id is needed, which the proxy carries without a join
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    @Column(name = "expiry_date", nullable = false)
     private LocalDateTime expiryDate;
 
     // Getters and setters
@@ -27,4 +32,4 @@ public class PasswordResetToken {
     public void setUser(User user) { this.user = user; }
     public LocalDateTime getExpiryDate() { return expiryDate; }
     public void setExpiryDate(LocalDateTime expiryDate) { this.expiryDate = expiryDate; }
-}
\ No newline at end of file
+}
@@ -0,0 +1,139 @@
+package com.taskmanager.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.model.Task;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Passes every committed {@link TaskChangedEvent} to the other nodes over a Redis channel, where it
+ * is published again as a {@link RemoteTaskChangedEvent}. Received changes are handed on one at a
+ * time in the order they were published, so a task's later state never overtakes an earlier one
+ * from the same node. Messages missed while Redis or the subscription was down are not replayed.
+ */
+@Component
+@ConditionalOnProperty(name = "app.tasks.replication", havingValue = "redis")
+public class RedisTaskEventReplication implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisTaskEventReplication.class);
+
+    private static final String CHANNEL = "task-changes";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    // Redis delivers a node's own messages back to it; its listeners saw those changes already.
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ExecutorService dispatcher =
+            Executors.newSingleThreadExecutor(Thread.ofPlatform().name("task-changes-replication").daemon().factory());
+    private RedisMessageListenerContainer listenerContainer;
+
+    public RedisTaskEventReplication(StringRedisTemplate redisTemplate, ApplicationEventPublisher eventPublisher,
+                                     ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void start() {
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisTemplate.getRequiredConnectionFactory());
+        // The default executor runs each message on its own thread, which can reorder them.
+        listenerContainer.setTaskExecutor(dispatcher::execute);
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        listenerContainer.afterPropertiesSet();
+        subscribe();
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        listenerContainer.destroy();
+        dispatcher.shutdown();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(ChangeMessage.of(nodeId, event)));
+        } catch (JsonProcessingException | DataAccessException e) {
+            logger.warn("Could not pass task changes of user {} to other nodes: {}", event.ownerId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            ChangeMessage received = objectMapper.readValue(message.getBody(), ChangeMessage.class);
+            if (!nodeId.equals(received.origin())) {
+                eventPublisher.publishEvent(new RemoteTaskChangedEvent(received.toEvent()));
+            }
+        } catch (IOException e) {
+            logger.warn("Ignoring malformed task change message: {}", e.getMessage());
+        }
+    }
+
+    // Starts the subscription once Redis is reachable; a node still starts without it.
+    @Scheduled(fixedDelayString = "${app.tasks.resubscribe-interval-ms:60000}",
+            initialDelayString = "${app.tasks.resubscribe-interval-ms:60000}")
+    public void subscribe() {
+        try {
+            if (!listenerContainer.isRunning()) {
+                listenerContainer.start();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not subscribe to task changes: {}", e.getMessage());
+        }
+    }
+
+    record ChangeMessage(String origin, TaskChangedEvent.Type type, Long ownerId, List<TaskMessage> tasks,
+                         List<Long> taskIds, int completedDelta) {
+
+        static ChangeMessage of(String origin, TaskChangedEvent event) {
+            return new ChangeMessage(origin, event.type(), event.ownerId(),
+                    event.tasks().stream().map(TaskMessage::of).toList(), event.taskIds(), event.completedDelta());
+        }
+
+        TaskChangedEvent toEvent() {
+            return new TaskChangedEvent(type, ownerId, tasks.stream().map(task -> task.toTask(ownerId)).toList(),
+                    taskIds, completedDelta);
+        }
+    }
+
+    record TaskMessage(Long id, String title, String description, boolean completed, Long version, Instant updatedAt) {
+
+        static TaskMessage of(Task task) {
+            return new TaskMessage(task.getId(), task.getTitle(), task.getDescription(), task.isCompleted(),
+                    task.getVersion(), task.getUpdatedAt());
+        }
+
+        Task toTask(Long ownerId) {
+            Task task = new Task(id, title, description, completed);
+            task.setOwnerId(ownerId);
+            task.setVersion(version);
+            task.setUpdatedAt(updatedAt);
+            return task;
+        }
+    }
+}
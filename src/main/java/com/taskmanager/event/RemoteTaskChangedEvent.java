@@ -0,0 +1,9 @@
+package com.taskmanager.event;
+
+/**
+ * A {@link TaskChangedEvent} committed on another node, published by {@link RedisTaskEventReplication}.
+ * Only listeners that keep node-local state which the database cannot refresh for them, such as
+ * open streams and the search index, should handle it; it arrives outside any transaction.
+ */
+public record RemoteTaskChangedEvent(TaskChangedEvent change) {
+}
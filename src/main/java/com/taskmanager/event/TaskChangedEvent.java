@@ -0,0 +1,33 @@
+package com.taskmanager.event;
+
+import com.taskmanager.model.Task;
+
+import java.util.List;
+
+/**
+ * Published by TaskService whenever one user's tasks are created, updated or deleted. Listeners that keep
+ * derived state in sync should use {@code @TransactionalEventListener(fallbackExecution = true)}
+ * so they only see committed changes.
+ * <p>
+ * {@code completedDelta} is how much the owner's number of completed tasks changed, which listeners
+ * cannot tell from the new state alone.
+ */
+public record TaskChangedEvent(Type type, Long ownerId, List<Task> tasks, List<Long> taskIds, int completedDelta) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static TaskChangedEvent created(Long ownerId, List<Task> tasks) {
+        int completed = (int) tasks.stream().filter(Task::isCompleted).count();
+        return new TaskChangedEvent(Type.CREATED, ownerId, List.copyOf(tasks), tasks.stream().map(Task::getId).toList(), completed);
+    }
+
+    public static TaskChangedEvent updated(Long ownerId, List<Task> tasks, int completedDelta) {
+        return new TaskChangedEvent(Type.UPDATED, ownerId, List.copyOf(tasks), tasks.stream().map(Task::getId).toList(), completedDelta);
+    }
+
+    public static TaskChangedEvent deleted(Long ownerId, List<Long> taskIds, int completedDelta) {
+        return new TaskChangedEvent(Type.DELETED, ownerId, List.of(), List.copyOf(taskIds), completedDelta);
+    }
+}
@@ -0,0 +1,7 @@
+package com.taskmanager.model;
+
+/**
+ * How many live tasks one user has, and how many of them are completed.
+ */
+public record OwnerTaskCounts(Long ownerId, long total, long completed) {
+}
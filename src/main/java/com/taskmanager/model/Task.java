@@ -1,19 +1,37 @@
 package com.taskmanager.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.taskmanager.entity.User;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_owner_completed_id", columnList = "owner_id, completed, id"),
+        @Index(name = "idx_tasks_owner_deleted_at_id", columnList = "owner_id, deleted_at, id"),
+        @Index(name = "idx_tasks_owner_updated_at", columnList = "owner_id, updated_at"),
+        @Index(name = "idx_tasks_deleted_at", columnList = "deleted_at")
+})
+@DynamicUpdate // ✅ UPDATE only the changed columns, so toggling completed doesn't rewrite the description
+@SQLDelete(sql = "UPDATE tasks SET deleted_at = CURRENT_TIMESTAMP WHERE id = ? AND version = ?") // ✅ Soft delete; TaskPurger removes the row later
+@SQLRestriction("deleted_at IS NULL") // ✅ Every load and query skips soft-deleted rows
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 @ToString
 public class Task {
 //L
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // ✅ Use IDENTITY strategy
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq") // ✅ Pooled sequence so inserts can be JDBC-batched
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -24,4 +42,34 @@ public class Task {
 
     @Column(nullable = false)
     private boolean completed; // ✅ Use primitive `boolean` for `isCompleted()`
+
+    @Column(name = "owner_id")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long ownerId; // ✅ Set from the authenticated principal, never from the request body
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id", insertable = false, updatable = false)
+    @JsonIgnore
+    @ToString.Exclude
+    private User owner; // ✅ Read-only side of owner_id; exists for the foreign key
+
+    @Version
+    @ColumnDefault("0") // ✅ Backfills existing rows when ddl-auto adds the column
+    @Column(nullable = false)
+    private Long version; // ✅ Bumped on every update; doubles as the ETag
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updatedAt; // ✅ Set on insert and update; drives /tasks/changes
+
+    @Column(name = "deleted_at")
+    @JsonIgnore
+    private Instant deletedAt; // ✅ Set by the soft delete; live rows are always null
+
+    public Task(Long id, String title, String description, boolean completed) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.completed = completed;
+    }
 }
@@ -0,0 +1,15 @@
+package com.taskmanager.model;
+
+import java.time.Instant;
+
+/**
+ * Aggregate fingerprint of one user's tasks. Inserts and updates move lastModified, deletes lower
+ * count and same-instant updates still raise versionSum, so equal states mean an unchanged listing.
+ */
+public record TaskListState(long count, long versionSum, Instant lastModified) {
+
+    public String eTag() {
+        long modified = lastModified == null ? 0 : lastModified.getEpochSecond() * 1_000_000_000L + lastModified.getNano();
+        return "\"" + Long.toHexString(count) + "-" + Long.toHexString(versionSum) + "-" + Long.toHexString(modified) + "\"";
+    }
+}
@@ -0,0 +1,31 @@
+package com.taskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Records that a task was deleted so /tasks/changes can tell clients to drop it.
+ */
+@Entity
+@Table(name = "task_tombstones", indexes = {
+        @Index(name = "idx_task_tombstones_deleted_at", columnList = "deleted_at"),
+        @Index(name = "idx_task_tombstones_owner_deleted_at", columnList = "owner_id, deleted_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskTombstone {
+
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+}
@@ -0,0 +1,19 @@
+package com.taskmanager.payload.request;
+
+/**
+ * Partial task update; fields left null are not touched.
+ */
+public class TaskPatchRequest {
+    private String title;
+
+    private String description;
+
+    private Boolean completed;
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public Boolean getCompleted() { return completed; }
+    public void setCompleted(Boolean completed) { this.completed = completed; }
+}
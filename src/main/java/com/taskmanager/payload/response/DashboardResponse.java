@@ -0,0 +1,73 @@
+package com.taskmanager.payload.response;
+
+import com.taskmanager.event.TaskChangedEvent;
+
+import java.time.Instant;
+import java.util.List;
+
+public class DashboardResponse {
+    private long total;
+    private long completed;
+    private List<Activity> recentActivity;
+
+    public DashboardResponse(long total, long completed, List<Activity> recentActivity) {
+        this.total = total;
+        this.completed = completed;
+        this.recentActivity = recentActivity;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getPending() {
+        return total - completed;
+    }
+
+    // Newest first; only changes made since the application started.
+    public List<Activity> getRecentActivity() {
+        return recentActivity;
+    }
+
+    public static class Activity {
+        private TaskChangedEvent.Type type;
+        private Long taskId;
+        private String title;
+        private Boolean completed;
+        private Instant at;
+
+        public Activity(TaskChangedEvent.Type type, Long taskId, String title, Boolean completed, Instant at) {
+            this.type = type;
+            this.taskId = taskId;
+            this.title = title;
+            this.completed = completed;
+            this.at = at;
+        }
+
+        public TaskChangedEvent.Type getType() {
+            return type;
+        }
+
+        public Long getTaskId() {
+            return taskId;
+        }
+
+        // Null for deletions.
+        public String getTitle() {
+            return title;
+        }
+
+        // Null for deletions.
+        public Boolean getCompleted() {
+            return completed;
+        }
+
+        public Instant getAt() {
+            return at;
+        }
+    }
+}
@@ -2,11 +2,17 @@ package com.taskmanager.payload.response;
 
 public class JwtResponse {
     private String token;
+    private String refreshToken;
 
     public JwtResponse(String token) {
         this.token = token;
     }
 
+    public JwtResponse(String token, String refreshToken) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+    }
+
     public String getToken() {
         return token;
     }
@@ -14,4 +20,12 @@ public class JwtResponse {
     public void setToken(String token) {
         this.token = token;
     }
-}
\ No newline at end of file
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
@@ -0,0 +1,31 @@
+package com.taskmanager.payload.response;
+
+import com.taskmanager.model.Task;
+
+import java.util.List;
+
+public class TaskChangesResponse {
+    private List<Task> tasks;
+    private List<Long> deletedIds;
+    private long watermark;
+
+    public TaskChangesResponse(List<Task> tasks, List<Long> deletedIds, long watermark) {
+        this.tasks = tasks;
+        this.deletedIds = deletedIds;
+        this.watermark = watermark;
+    }
+
+    // Tasks created or updated after the requested watermark, oldest change first.
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public List<Long> getDeletedIds() {
+        return deletedIds;
+    }
+
+    // Pass back as ?since= on the next poll. Overlaps slightly, so a task may be sent twice.
+    public long getWatermark() {
+        return watermark;
+    }
+}
@@ -0,0 +1,13 @@
+package com.taskmanager.payload.response;
+
+public class TaskCountResponse {
+    private long count;
+
+    public TaskCountResponse(long count) {
+        this.count = count;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
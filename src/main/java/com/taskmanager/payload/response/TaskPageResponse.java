@@ -0,0 +1,24 @@
+package com.taskmanager.payload.response;
+
+import com.taskmanager.model.Task;
+
+import java.util.List;
+
+public class TaskPageResponse {
+    private List<Task> tasks;
+    private Long nextCursor;
+
+    public TaskPageResponse(List<Task> tasks, Long nextCursor) {
+        this.tasks = tasks;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    // Null once the last page has been returned.
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,46 @@
+package com.taskmanager.payload.response;
+
+import java.util.List;
+
+public class UserImportResponse {
+    private int imported;
+    private int rejected;
+    private List<RowError> errors;
+
+    public UserImportResponse(int imported, int rejected, List<RowError> errors) {
+        this.imported = imported;
+        this.rejected = rejected;
+        this.errors = errors;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    // Only the first rejections are listed; rejected always has the full count.
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public static class RowError {
+        private int line;
+        private String message;
+
+        public RowError(int line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -1,15 +1,29 @@
 package com.taskmanager.repository;
 
 import com.taskmanager.entity.PasswordResetToken;
-import com.taskmanager.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
     Optional<PasswordResetToken> findByToken(String token);
-    Optional<PasswordResetToken> findByUserAndExpiryDateAfter(User user, LocalDateTime expiryDate);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("delete from PasswordResetToken t where t.user.id = :userId")
+    int deleteByUserId(Long userId);
+
+    // Returns 0 if another request redeemed the same token first.
+    @Modifying
+    @Query("delete from PasswordResetToken t where t.id = :id")
+    int deleteOne(Long id);
+
+    @Query("select t.id from PasswordResetToken t where t.expiryDate < :now order by t.expiryDate")
+    List<Long> findExpiredIds(LocalDateTime now, Limit limit);
+}
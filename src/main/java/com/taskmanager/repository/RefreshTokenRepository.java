@@ -0,0 +1,38 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.entity.RefreshToken;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // Returns 0 if the token was rotated before, including by a concurrent request.
+    @Modifying
+    @Query("update RefreshToken t set t.used = true where t.id = :id and t.used = false")
+    int markUsed(Long id);
+
+    // Slides the family's expiry, keeping its used tokens around for reuse detection as long as it lives.
+    @Modifying
+    @Query("update RefreshToken t set t.expiryDate = :expiryDate where t.familyId = :familyId")
+    int extendFamily(String familyId, LocalDateTime expiryDate);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.familyId = :familyId")
+    int deleteByFamilyId(String familyId);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.user.id = :userId")
+    int deleteByUserId(Long userId);
+
+    @Query("select t.id from RefreshToken t where t.expiryDate < :now order by t.expiryDate")
+    List<Long> findExpiredIds(LocalDateTime now, Limit limit);
+}
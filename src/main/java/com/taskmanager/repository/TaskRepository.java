@@ -1,9 +1,109 @@
 package com.taskmanager.repository;
 
+import com.taskmanager.model.OwnerTaskCounts;
 import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskListState;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * Every query a request can reach is scoped to one owner and served by the
+ * {@code (owner_id, completed, id)}, {@code (owner_id, deleted_at, id)} or
+ * {@code (owner_id, updated_at)} index, so its cost follows that user's task count rather than
+ * the size of the table.
+ * <p>
+ * Soft-deleted rows are filtered out of every JPQL and derived query by the entity's
+ * {@code @SQLRestriction}; only the native purge queries below see them. Queries without a
+ * {@code completed} condition need the owner index that also covers {@code deleted_at}: otherwise
+ * the planner matches {@code deleted_at IS NULL} on {@code idx_tasks_deleted_at} and walks every
+ * live row.
+ */
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
+
+    List<Task> findByOwnerIdOrderByIdAsc(Long ownerId);
+
+    // Keyset page: seeks past the cursor on the index instead of using OFFSET.
+    List<Task> findByOwnerIdAndIdGreaterThanOrderByIdAsc(Long ownerId, Long after, Limit limit);
+
+    List<Task> findByOwnerIdAndCompletedAndIdGreaterThanOrderByIdAsc(Long ownerId, boolean completed, Long after, Limit limit);
+
+    // Must be consumed inside a transaction and closed by the caller.
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Task t where t.ownerId = :ownerId order by t.id")
+    Stream<Task> streamByOwnerId(Long ownerId);
+
+    // Every owner's tasks, for rebuilding derived state such as the search index.
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Task t order by t.id")
+    Stream<Task> streamAllByOrderByIdAsc();
+
+    // Computed in the database so a conditional GET never loads the rows.
+    @Query("select new com.taskmanager.model.TaskListState(count(t), coalesce(sum(t.version), 0), max(t.updatedAt)) "
+            + "from Task t where t.ownerId = :ownerId")
+    TaskListState findListState(Long ownerId);
+
+    List<Task> findByOwnerIdAndUpdatedAtAfterOrderByUpdatedAtAsc(Long ownerId, Instant since);
+
+    List<Task> findByOwnerIdAndIdIn(Long ownerId, Collection<Long> ids);
+
+    // One UPDATE for the whole batch; the rows stay until TaskPurger removes them. Split on completed
+    // so the update count tells the dashboard how many completed tasks went without reading the rows.
+    @Modifying
+    @Query("update Task t set t.deletedAt = :deletedAt "
+            + "where t.ownerId = :ownerId and t.id in :ids and t.completed = :completed and t.deletedAt is null")
+    int softDeleteByIds(Long ownerId, Collection<Long> ids, boolean completed, Instant deletedAt);
+
+    // Native because the restriction would hide these rows.
+    @Query(value = "SELECT id FROM tasks WHERE owner_id = :ownerId AND id IN (:ids) AND deleted_at = :deletedAt",
+            nativeQuery = true)
+    List<Long> findIdsDeletedAt(Long ownerId, Collection<Long> ids, Instant deletedAt);
+
+    // Native because the restriction would hide these rows. Served by idx_tasks_deleted_at.
+    @Query(value = "SELECT id FROM tasks WHERE deleted_at < :cutoff ORDER BY deleted_at FETCH FIRST :limit ROWS ONLY",
+            nativeQuery = true)
+    List<Long> findPurgeableIds(Instant cutoff, int limit);
+
+    // Declares the table so Hibernate does not invalidate every cached query result.
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "tasks"))
+    @Query(value = "DELETE FROM tasks WHERE id IN (:ids) AND deleted_at IS NOT NULL", nativeQuery = true)
+    int purgeByIds(Collection<Long> ids);
+
+    // Ground truth for the dashboard counters; one pass over the owner_id index.
+    @Query("select new com.taskmanager.model.OwnerTaskCounts(t.ownerId, count(t), "
+            + "coalesce(sum(case when t.completed = true then 1 else 0 end), 0)) from Task t group by t.ownerId")
+    List<OwnerTaskCounts> findCountsByOwner();
+
+    @Query("select new com.taskmanager.model.OwnerTaskCounts(t.ownerId, count(t), "
+            + "coalesce(sum(case when t.completed = true then 1 else 0 end), 0)) from Task t where t.ownerId = :ownerId group by t.ownerId")
+    Optional<OwnerTaskCounts> findCountsByOwnerId(Long ownerId);
+
+    // Count and exists queries select a number, never entities.
+    long countByOwnerId(Long ownerId);
+
+    long countByOwnerIdAndCompleted(Long ownerId, boolean completed);
+
+    boolean existsByIdAndOwnerId(Long id, Long ownerId);
 }
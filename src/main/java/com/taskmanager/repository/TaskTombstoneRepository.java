@@ -0,0 +1,21 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.model.TaskTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    @Query("select t.taskId from TaskTombstone t where t.ownerId = :ownerId and t.deletedAt > :since")
+    List<Long> findTaskIdsDeletedAfter(Long ownerId, Instant since);
+
+    @Modifying
+    @Query("delete from TaskTombstone t where t.deletedAt < :cutoff")
+    int deleteOlderThan(Instant cutoff);
+}
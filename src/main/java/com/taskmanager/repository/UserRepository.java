@@ -2,8 +2,12 @@ package com.taskmanager.repository;
 
 import com.taskmanager.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,4 +20,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByEmail(String email); // Add this method
 
     Boolean existsByUsername(String username); // Add this method
-}
\ No newline at end of file
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+}
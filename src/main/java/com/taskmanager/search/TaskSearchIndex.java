@@ -0,0 +1,448 @@
+package com.taskmanager.search;
+
+import com.taskmanager.event.RemoteTaskChangedEvent;
+import com.taskmanager.event.TaskChangedEvent;
+import com.taskmanager.model.Task;
+import com.taskmanager.service.TaskService;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Lucene inverted index over task titles and descriptions.
+ * <p>
+ * The index is kept current from committed {@link TaskChangedEvent}s, including the
+ * {@link RemoteTaskChangedEvent}s of changes committed on other nodes; every node keeps its own
+ * index. Changes missed while Redis was unreachable stay invisible here until the next rebuild,
+ * though hits are loaded from the database, so a stale entry never returns a deleted task or old
+ * content.
+ * <p>
+ * Writes only buffer the change in the {@link IndexWriter}; a background reopen thread makes them
+ * searchable within {@code app.search.max-stale-ms}, so no request waits for a refresh. Queries
+ * are BM25-ranked with title matches weighted higher. A term ending in {@code *} is treated as a prefix. Every search
+ * is restricted to one owner's tasks.
+ * <p>
+ * A rebuild from the database fills a new index in its own directory and swaps it in when
+ * complete, so searches never see an empty or partial index. With {@code app.search.index-dir}
+ * set, each index lives in a {@code gen-N} subdirectory; the newest one is opened as it is at
+ * startup and serves searches while the startup rebuild reconciles it with the database.
+ */
+@Component
+public class TaskSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskSearchIndex.class);
+
+    private static final String ID = "id";
+    private static final String OWNER = "owner";
+    private static final String TITLE = "title";
+    private static final String DESCRIPTION = "description";
+    private static final float TITLE_BOOST = 2.0f;
+    private static final String GENERATION_PREFIX = "gen-";
+
+    private final TaskService taskService;
+    private final int maxResults;
+    private final double maxStaleSeconds;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Path indexDir;
+
+    // Writes to the live and the rebuilding index are serialized so the rebuild can tell which
+    // ids live events already wrote to it; it must not overwrite them with older rows.
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Generation live;
+    private Generation building;
+    private Set<Long> touchedDuringRebuild;
+
+    public TaskSearchIndex(TaskService taskService,
+                           @Value("${app.search.index-dir:}") String indexDir,
+                           @Value("${app.search.max-results:100}") int maxResults,
+                           @Value("${app.search.max-stale-ms:100}") long maxStaleMillis) throws IOException {
+        this.taskService = taskService;
+        this.maxResults = maxResults;
+        this.maxStaleSeconds = maxStaleMillis / 1000.0;
+        this.indexDir = indexDir.isBlank() ? null : Path.of(indexDir);
+        this.live = openGeneration(latestGeneration());
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        Generation next;
+        writeLock.lock();
+        try {
+            if (building != null) {
+                throw new IllegalStateException("A search index rebuild is already running");
+            }
+            next = openGeneration(live.number + 1);
+            building = next;
+            touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeLock.unlock();
+        }
+
+        long[] count = {0};
+        boolean complete = false;
+        try {
+            taskService.streamAllTasks(task -> {
+                writeLock.lock();
+                try {
+                    if (!touchedDuringRebuild.contains(task.getId())) {
+                        next.update(task);
+                        count[0]++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    writeLock.unlock();
+                }
+            });
+            next.writer.commit();
+            next.searcherManager.maybeRefreshBlocking();
+            complete = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            Generation retired;
+            writeLock.lock();
+            try {
+                building = null;
+                touchedDuringRebuild = null;
+                retired = complete ? live : next;
+                if (complete) {
+                    live = next;
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            retired.closeAndDelete();
+        }
+        logger.info("Rebuilt task search index with {} tasks in {} ms", count[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        try {
+            if (event.type() == TaskChangedEvent.Type.DELETED) {
+                remove(event.taskIds());
+            } else {
+                index(event.tasks());
+            }
+        } catch (RuntimeException e) {
+            // The database change is already committed; a stale index entry must not fail the request.
+            logger.error("Failed to apply {} of tasks {} to the search index", event.type(), event.taskIds(), e);
+        }
+    }
+
+    @EventListener
+    public void onRemoteTaskChanged(RemoteTaskChangedEvent event) {
+        onTaskChanged(event.change());
+    }
+
+    public void index(Collection<Task> tasks) {
+        writeLock.lock();
+        try {
+            for (Task task : tasks) {
+                live.update(task);
+                if (building != null) {
+                    touchedDuringRebuild.add(task.getId());
+                    building.update(task);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(Collection<Long> taskIds) {
+        writeLock.lock();
+        try {
+            for (Long id : taskIds) {
+                live.delete(id);
+                if (building != null) {
+                    touchedDuringRebuild.add(id);
+                    building.delete(id);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until every change applied so far is searchable. Requests never call this; it is for
+     * callers that must read their own writes, such as tests.
+     */
+    public void awaitSearchable() {
+        try {
+            live.awaitSearchable();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the ids of the owner's best matching tasks, highest score first.
+     */
+    public List<Long> search(Long ownerId, String queryText, int limit) {
+        Query textQuery = parse(queryText);
+        if (textQuery == null) {
+            return List.of();
+        }
+        Query query = new BooleanQuery.Builder()
+                .add(textQuery, BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term(OWNER, String.valueOf(ownerId))), BooleanClause.Occur.FILTER)
+                .build();
+        try {
+            while (true) {
+                Generation generation = live;
+                IndexSearcher searcher;
+                try {
+                    searcher = generation.searcherManager.acquire();
+                } catch (AlreadyClosedException e) {
+                    // Swapped out by a rebuild between reading the field and acquiring; use the new one.
+                    if (generation == live) {
+                        throw e;
+                    }
+                    continue;
+                }
+                try {
+                    ScoreDoc[] hits = searcher.search(query, Math.max(1, Math.min(limit, maxResults))).scoreDocs;
+                    StoredFields storedFields = searcher.storedFields();
+                    List<Long> ids = new ArrayList<>(hits.length);
+                    for (ScoreDoc hit : hits) {
+                        ids.add(Long.valueOf(storedFields.document(hit.doc, Set.of(ID)).get(ID)));
+                    }
+                    return ids;
+                } finally {
+                    generation.searcherManager.release(searcher);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            if (building != null) {
+                building.closeAndDelete();
+                building = null;
+            }
+            live.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // The newest generation with a commit; generations left by an interrupted rebuild have none.
+    private int latestGeneration() throws IOException {
+        if (indexDir == null || !Files.isDirectory(indexDir)) {
+            return 1;
+        }
+        List<Integer> numbers;
+        try (Stream<Path> children = Files.list(indexDir)) {
+            numbers = children.map(path -> path.getFileName().toString())
+                    .filter(name -> name.matches(GENERATION_PREFIX + "\\d+"))
+                    .map(name -> Integer.valueOf(name.substring(GENERATION_PREFIX.length())))
+                    .sorted(Comparator.reverseOrder())
+                    .toList();
+        }
+        Integer latest = null;
+        for (Integer number : numbers) {
+            Path path = indexDir.resolve(GENERATION_PREFIX + number);
+            if (latest == null) {
+                try (Directory directory = FSDirectory.open(path)) {
+                    if (DirectoryReader.indexExists(directory)) {
+                        latest = number;
+                        continue;
+                    }
+                }
+            }
+            FileSystemUtils.deleteRecursively(path);
+        }
+        return latest != null ? latest : 1;
+    }
+
+    private Generation openGeneration(int number) throws IOException {
+        Path path = indexDir == null ? null : indexDir.resolve(GENERATION_PREFIX + number);
+        Directory directory = path == null ? new ByteBuffersDirectory() : FSDirectory.open(path);
+        IndexWriter writer = new IndexWriter(directory,
+                new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        return new Generation(number, path, directory, writer, maxStaleSeconds);
+    }
+
+    /**
+     * One index with its own directory, writer, searchers and reopen thread.
+     */
+    private static final class Generation {
+
+        final int number;
+        final Path path;
+        final Directory directory;
+        final IndexWriter writer;
+        final SearcherManager searcherManager;
+        final ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+        // Sequence number of the latest write, which awaitSearchable waits for.
+        final AtomicLong lastChange = new AtomicLong(-1);
+
+        Generation(int number, Path path, Directory directory, IndexWriter writer, double maxStaleSeconds) throws IOException {
+            this.number = number;
+            this.path = path;
+            this.directory = directory;
+            this.writer = writer;
+            this.searcherManager = new SearcherManager(writer, null);
+            this.reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager, maxStaleSeconds, 0);
+            reopenThread.setName("task-search-reopen-" + number);
+            reopenThread.setDaemon(true);
+            reopenThread.start();
+        }
+
+        void update(Task task) throws IOException {
+            lastChange.accumulateAndGet(writer.updateDocument(new Term(ID, task.getId().toString()), toDocument(task)), Math::max);
+        }
+
+        void delete(Long id) throws IOException {
+            lastChange.accumulateAndGet(writer.deleteDocuments(new Term(ID, id.toString())), Math::max);
+        }
+
+        void awaitSearchable() throws InterruptedException {
+            long generation = lastChange.get();
+            if (generation >= 0) {
+                reopenThread.waitForGeneration(generation);
+            }
+        }
+
+        void close() throws IOException {
+            reopenThread.close();
+            // Searches still holding a searcher keep their reader until they release it.
+            searcherManager.close();
+            writer.close();
+            directory.close();
+        }
+
+        void closeAndDelete() {
+            try {
+                close();
+                if (path != null) {
+                    FileSystemUtils.deleteRecursively(path);
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to remove search index generation {}", number, e);
+            }
+        }
+    }
+
+    private static Document toDocument(Task task) {
+        Document document = new Document();
+        document.add(new StringField(ID, task.getId().toString(), Field.Store.YES));
+        document.add(new StringField(OWNER, String.valueOf(task.getOwnerId()), Field.Store.NO));
+        document.add(new TextField(TITLE, nullToEmpty(task.getTitle()), Field.Store.NO));
+        document.add(new TextField(DESCRIPTION, nullToEmpty(task.getDescription()), Field.Store.NO));
+        return document;
+    }
+
+    // Every term must match (in either field); a trailing '*' turns the last term of a word into a prefix.
+    private Query parse(String queryText) {
+        if (queryText == null || queryText.isBlank()) {
+            return null;
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        boolean hasClauses = false;
+        for (String word : queryText.trim().split("\\s+")) {
+            boolean prefix = word.endsWith("*");
+            List<String> terms = analyze(prefix ? word.substring(0, word.length() - 1) : word);
+            for (int i = 0; i < terms.size(); i++) {
+                boolean isPrefix = prefix && i == terms.size() - 1;
+                query.add(new BooleanQuery.Builder()
+                        .add(new BoostQuery(termQuery(TITLE, terms.get(i), isPrefix), TITLE_BOOST), BooleanClause.Occur.SHOULD)
+                        .add(termQuery(DESCRIPTION, terms.get(i), isPrefix), BooleanClause.Occur.SHOULD)
+                        .build(), BooleanClause.Occur.MUST);
+                hasClauses = true;
+            }
+        }
+        return hasClauses ? query.build() : null;
+    }
+
+    private static Query termQuery(String field, String term, boolean prefix) {
+        return prefix ? new PrefixQuery(new Term(field, term)) : new TermQuery(new Term(field, term));
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(TITLE, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
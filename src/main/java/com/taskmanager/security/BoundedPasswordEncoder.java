@@ -0,0 +1,118 @@
+package com.taskmanager.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs the wrapped encoder on a small dedicated pool so a burst of logins can only occupy that many
+ * cores; the rest stay free for ordinary requests. Work that finds the queue full, or that waited
+ * longer than the queue budget by the time a thread picks it up, fails fast with
+ * {@link PasswordHashingRejectedException} instead of hashing for a client that has likely given up.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long maxQueueWaitNanos;
+    private final Timer queueWaitTimer;
+    private final Counter queueFullCounter;
+    private final Counter queueTimeoutCounter;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration maxQueueWait,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("password-hash-", 0).daemon().factory());
+        this.maxQueueWaitNanos = maxQueueWait.toNanos();
+        this.queueWaitTimer = Timer.builder("auth.password.queue.wait")
+                .description("Time password hashing work waits for a hashing thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueFullCounter = rejectedCounter("queue_full", meterRegistry);
+        this.queueTimeoutCounter = rejectedCounter("queue_timeout", meterRegistry);
+        Gauge.builder("auth.password.queue.size", executor, pool -> pool.getQueue().size())
+                .description("Password hashing work waiting for a thread")
+                .register(meterRegistry);
+    }
+
+    private static Counter rejectedCounter(String reason, MeterRegistry meterRegistry) {
+        return Counter.builder("auth.password.rejected")
+                .description("Password hashing requests turned away because the executor was saturated")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * The wrapped encoder, for batch jobs that bring their own executor and must not compete with
+     * interactive logins for a place in the queue.
+     */
+    public PasswordEncoder unbounded() {
+        return delegate;
+    }
+
+    private <T> T run(Supplier<T> hashing) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long waited = System.nanoTime() - queuedAt;
+                queueWaitTimer.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > maxQueueWaitNanos) {
+                    queueTimeoutCounter.increment();
+                    throw new PasswordHashingRejectedException("Password hashing queue wait exceeded its budget");
+                }
+                return hashing.get();
+            });
+        } catch (RejectedExecutionException e) {
+            queueFullCounter.increment();
+            throw new PasswordHashingRejectedException("Password hashing queue is full");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,11 @@
+package com.taskmanager.security;
+
+/**
+ * Thrown when the password hashing executor is saturated and the request should be retried later.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
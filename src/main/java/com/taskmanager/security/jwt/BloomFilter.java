@@ -0,0 +1,58 @@
+package com.taskmanager.security.jwt;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free bloom filter over strings: {@link #add} may run concurrently with {@link #mightContain}.
+ * Sized at about ten bits per expected entry with seven probes, for roughly 1% false positives.
+ */
+class BloomFilter {
+
+    private static final int PROBES = 7;
+
+    private final AtomicLongArray words;
+    private final int mask;
+
+    BloomFilter(int expectedEntries) {
+        int bits = Integer.highestOneBit(Math.max(64, expectedEntries) * 10 - 1) << 1;
+        this.words = new AtomicLongArray(bits >>> 6);
+        this.mask = bits - 1;
+    }
+
+    void add(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < PROBES; i++) {
+            int bit = (h1 + i * h2) & mask;
+            long flag = 1L << bit;
+            long word;
+            do {
+                word = words.get(bit >>> 6);
+            } while ((word & flag) == 0 && !words.compareAndSet(bit >>> 6, word, word | flag));
+        }
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < PROBES; i++) {
+            int bit = (h1 + i * h2) & mask;
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 64-bit FNV-1a; the two halves drive double hashing.
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
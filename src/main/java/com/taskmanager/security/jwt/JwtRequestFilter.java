@@ -1,6 +1,7 @@
 package com.taskmanager.security.jwt;
 
-import com.auth0.jwt.exceptions.JWTVerificationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,11 +23,19 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
     private final UserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
+    private final TokenRevocationList revocationList;
+    private final Timer authenticationTimer;
 
     @Autowired
-    public JwtRequestFilter(UserDetailsService userDetailsService, JwtUtil jwtUtil) {
+    public JwtRequestFilter(UserDetailsService userDetailsService, JwtUtil jwtUtil, TokenRevocationList revocationList,
+                            MeterRegistry meterRegistry) {
         this.userDetailsService = userDetailsService;
         this.jwtUtil = jwtUtil;
+        this.revocationList = revocationList;
+        this.authenticationTimer = Timer.builder("auth.jwt.filter")
+                .description("Time spent verifying the bearer token and resolving its user")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     @Override
@@ -35,32 +44,37 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         final String requestTokenHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwtToken = null;
-
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
-            try {
-                username = jwtUtil.getUsernameFromToken(jwtToken);
-            } catch (IllegalArgumentException e) {
-                logger.warn("Unable to get JWT Token");
-            } catch (JWTVerificationException e) {
-                logger.warn("JWT Token is invalid or expired");
-            }
+            // Timed separately from the rest of the chain so it shows up on its own in latency breakdowns.
+            authenticationTimer.record(() -> authenticate(requestTokenHeader.substring(7), request));
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    private void authenticate(String jwtToken, HttpServletRequest request) {
+        // Signature and expiry are checked once here; the result is reused below.
+        VerifiedToken verifiedToken = jwtUtil.verify(jwtToken);
+        if (verifiedToken == null) {
+            logger.warn("JWT Token is invalid or expired");
+            return;
+        }
+        // In-memory lookup, kept in sync across nodes by TokenRevocationService.
+        if (revocationList.isRevoked(verifiedToken)) {
+            logger.warn("JWT Token has been revoked");
+            return;
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (verifiedToken.subject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = this.userDetailsService.loadUserByUsername(verifiedToken.subject());
 
-            if (jwtUtil.validateToken(jwtToken, userDetails)) {
+            if (verifiedToken.subject().equals(userDetails.getUsername())) {
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
             }
         }
-
-        chain.doFilter(request, response);
     }
 }
\ No newline at end of file
@@ -5,11 +5,13 @@ import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
@@ -20,55 +22,75 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private long expiration; // in milliseconds
 
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    // The algorithm and verifier are immutable and thread-safe, so they are built once.
+    private Algorithm algorithm;
+    private JWTVerifier verifier;
+    private VerifiedTokenCache tokenCache;
+
+    @PostConstruct
+    void init() {
+        algorithm = Algorithm.HMAC256(secret);
+        verifier = JWT.require(algorithm)
+                .withClaimPresence("exp")
+                .build();
+        tokenCache = new VerifiedTokenCache(cacheMaxSize);
+    }
+
     public String generateToken(UserDetails userDetails) {
-        Algorithm algorithm = Algorithm.HMAC256(secret);
+        return generateToken(userDetails.getUsername());
+    }
+
+    public String generateToken(String subject) {
         return JWT.create()
-                .withSubject(userDetails.getUsername())
-                .withClaim("email", userDetails.getUsername())
+                .withSubject(subject)
+                .withClaim("email", subject)
+                .withJWTId(UUID.randomUUID().toString()) // Lets a single token be revoked, see TokenRevocationList
                 .withIssuedAt(new Date())
                 .withExpiresAt(new Date(System.currentTimeMillis() + expiration))
                 .sign(algorithm);
     }
 
-    public String getUsernameFromToken(String token) {
-        try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            JWTVerifier verifier = JWT.require(algorithm)
-                    .build();
-            DecodedJWT jwt = verifier.verify(token);
-            return jwt.getSubject();
-        } catch (JWTVerificationException exception) {
+    /**
+     * Verifies the signature and expiry of a token exactly once and returns its claims,
+     * or null if the token is invalid. Tokens seen before are served from cache until they expire.
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isEmpty()) {
             return null;
         }
-    }
-
-    public String getEmailFromToken(String token) {
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = tokenCache.get(token, now);
+        if (cached != null) {
+            return cached;
+        }
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            JWTVerifier verifier = JWT.require(algorithm)
-                    .build();
             DecodedJWT jwt = verifier.verify(token);
-            return jwt.getClaim("email").asString();
+            long issuedAt = jwt.getIssuedAt() != null ? jwt.getIssuedAt().getTime() / 1000 : 0;
+            VerifiedToken verified = new VerifiedToken(jwt.getSubject(), jwt.getClaim("email").asString(),
+                    jwt.getId(), issuedAt, jwt.getExpiresAt().getTime());
+            tokenCache.put(token, verified, now);
+            return verified;
         } catch (JWTVerificationException exception) {
             return null;
         }
     }
 
-    public boolean validateToken(String token, UserDetails userDetails) {
-        String tokenUsername = getUsernameFromToken(token);
-        return tokenUsername != null && tokenUsername.equals(userDetails.getUsername()) && !isTokenExpired(token);
+    public String getUsernameFromToken(String token) {
+        VerifiedToken verified = verify(token);
+        return verified != null ? verified.subject() : null;
     }
 
-    private boolean isTokenExpired(String token) {
-        try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            JWTVerifier verifier = JWT.require(algorithm)
-                    .build();
-            DecodedJWT jwt = verifier.verify(token);
-            Date expiresAt = jwt.getExpiresAt();
-            return expiresAt.before(new Date());
-        } catch (JWTVerificationException exception) {
-            return true; // Consider invalid if verification fails
-        }
+    public String getEmailFromToken(String token) {
+        VerifiedToken verified = verify(token);
+        return verified != null ? verified.email() : null;
+    }
+
+    public boolean validateToken(String token, UserDetails userDetails) {
+        VerifiedToken verified = verify(token);
+        return verified != null && !verified.isExpired(System.currentTimeMillis())
+                && verified.subject() != null && verified.subject().equals(userDetails.getUsername());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,97 @@
+package com.taskmanager.security.jwt;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This node's copy of the revocation state, checked by {@link JwtRequestFilter} on every request
+ * without any I/O. It holds two kinds of entries:
+ * <ul>
+ *   <li>a per-user watermark: tokens of that subject issued before it are revoked, e.g. after a
+ *       password reset;</li>
+ *   <li>revoked token ids ({@code jti}), e.g. after a logout.</li>
+ * </ul>
+ * Token ids sit in an exact set behind a bloom filter, so the usual case of a token that was
+ * never revoked is answered by a few bit probes. Entries are dropped once every token they could
+ * match has expired. Replication between nodes is the job of {@code TokenRevocationService}.
+ */
+@Component
+public class TokenRevocationList {
+
+    private final long tokenLifetimeMillis;
+    private final int expectedRevokedTokens;
+    private final Map<String, Long> watermarks = new ConcurrentHashMap<>();
+    private final Map<String, Long> revokedIds = new ConcurrentHashMap<>();
+    private volatile BloomFilter revokedIdFilter;
+
+    public TokenRevocationList(@Value("${jwt.expiration}") long tokenLifetimeMillis,
+                               @Value("${app.security.revocation.expected-revoked-tokens:10000}") int expectedRevokedTokens) {
+        this.tokenLifetimeMillis = tokenLifetimeMillis;
+        this.expectedRevokedTokens = expectedRevokedTokens;
+        this.revokedIdFilter = new BloomFilter(expectedRevokedTokens);
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        if (!watermarks.isEmpty() && token.subject() != null) {
+            Long watermark = watermarks.get(token.subject());
+            if (watermark != null && token.issuedAtSeconds() < watermark) {
+                return true;
+            }
+        }
+        String id = token.id();
+        return id != null && revokedIdFilter.mightContain(id) && revokedIds.containsKey(id);
+    }
+
+    /**
+     * Revokes the subject's tokens issued before the given second. Tokens carry {@code iat} in
+     * whole seconds, so a token issued earlier within that same second stays valid.
+     *
+     * @return whether this raised the subject's watermark, rather than repeating a known one
+     */
+    public boolean revokeIssuedBefore(String subject, long epochSecond) {
+        boolean[] raised = new boolean[1];
+        watermarks.compute(subject, (key, current) -> {
+            if (current != null && current >= epochSecond) {
+                return current;
+            }
+            raised[0] = true;
+            return epochSecond;
+        });
+        return raised[0];
+    }
+
+    public void revokeToken(String id, long expiresAtMillis) {
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        // The set is written before the filter; rebuildFilter relies on that order.
+        revokedIds.put(id, expiresAtMillis);
+        revokedIdFilter.add(id);
+    }
+
+    int size() {
+        return watermarks.size() + revokedIds.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.prune-interval-ms:60000}")
+    public void prune() {
+        long now = System.currentTimeMillis();
+        watermarks.values().removeIf(watermark -> watermark * 1000 + tokenLifetimeMillis <= now);
+        if (revokedIds.values().removeIf(expiresAt -> expiresAt <= now)) {
+            rebuildFilter();
+        }
+    }
+
+    // Bloom filters cannot forget, so pruning swaps in a fresh one. Ids revoked while it is built
+    // are either seen by the second pass or added straight to the new filter, never lost.
+    private void rebuildFilter() {
+        BloomFilter filter = new BloomFilter(Math.max(expectedRevokedTokens, revokedIds.size() * 2));
+        revokedIds.keySet().forEach(filter::add);
+        revokedIdFilter = filter;
+        revokedIds.keySet().forEach(filter::add);
+    }
+}
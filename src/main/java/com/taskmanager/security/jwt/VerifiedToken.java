@@ -0,0 +1,12 @@
+package com.taskmanager.security.jwt;
+
+/**
+ * Claims of a bearer token whose signature and expiry have already been checked.
+ * {@code id} is the {@code jti} claim and may be null for tokens issued without one.
+ */
+public record VerifiedToken(String subject, String email, String id, long issuedAtSeconds, long expiresAtMillis) {
+
+    public boolean isExpired(long nowMillis) {
+        return expiresAtMillis <= nowMillis;
+    }
+}
@@ -0,0 +1,74 @@
+package com.taskmanager.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of tokens that already passed HMAC verification, keyed by the raw token string.
+ * Each entry expires together with its token, so a hit never extends a token's lifetime, and a
+ * full cache evicts in amortized constant time instead of scanning for expired entries.
+ */
+class VerifiedTokenCache {
+
+    private final Cache<String, VerifiedToken> entries;
+    private final Policy.VarExpiration<String, VerifiedToken> expiration;
+
+    VerifiedTokenCache(int maxSize) {
+        this(maxSize, Ticker.systemTicker());
+    }
+
+    VerifiedTokenCache(int maxSize, Ticker ticker) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(Math.max(maxSize, 0))
+                .expireAfter(new UntilTokenExpiry())
+                .ticker(ticker)
+                .build();
+        this.expiration = entries.policy().expireVariably().orElseThrow();
+    }
+
+    VerifiedToken get(String token, long nowMillis) {
+        VerifiedToken verified = entries.getIfPresent(token);
+        // The ticker and the wall clock can drift apart; the token's own exp always wins.
+        if (verified == null || verified.isExpired(nowMillis)) {
+            return null;
+        }
+        return verified;
+    }
+
+    void put(String token, VerifiedToken verified, long nowMillis) {
+        long remainingMillis = verified.expiresAtMillis() - nowMillis;
+        if (remainingMillis > 0) {
+            expiration.put(token, verified, Duration.ofMillis(remainingMillis));
+        }
+    }
+
+    int size() {
+        entries.cleanUp();
+        return (int) entries.estimatedSize();
+    }
+
+    // Only a fallback for writes that bypass put(), which passes the remaining lifetime explicitly.
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(verified.expiresAtMillis() - System.currentTimeMillis(), 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, verified, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
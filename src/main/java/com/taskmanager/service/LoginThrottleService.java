@@ -0,0 +1,13 @@
+package com.taskmanager.service;
+
+/**
+ * Sliding-window limit on failed logins per account.
+ */
+public interface LoginThrottleService {
+
+    boolean isBlocked(String email);
+
+    void recordFailure(String email);
+
+    void reset(String email);
+}
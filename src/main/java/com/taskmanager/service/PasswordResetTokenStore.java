@@ -0,0 +1,19 @@
+package com.taskmanager.service;
+
+import java.util.Optional;
+
+/**
+ * Single-use password reset tokens. Selected by {@code app.security.password-reset.store}.
+ */
+public interface PasswordResetTokenStore {
+
+    /**
+     * Creates a token for the user, invalidating any token issued to them before.
+     */
+    String issue(Long userId);
+
+    /**
+     * Consumes the token and returns its user, or empty if it is unknown, expired or already used.
+     */
+    Optional<Long> redeem(String token);
+}
@@ -0,0 +1,36 @@
+package com.taskmanager.service;
+
+import java.util.Optional;
+
+/**
+ * Rotating refresh tokens, grouped into one family per login. Selected by {@code app.security.refresh-token.store}.
+ * <p>
+ * Each token can be rotated once. Presenting a token that was already rotated means it leaked,
+ * so the whole family is revoked and its holder has to log in again.
+ */
+public interface RefreshTokenStore {
+
+    /**
+     * Starts a new family for the user and returns its first token.
+     */
+    String issue(Long userId, String subject);
+
+    /**
+     * Consumes the token and returns its user with the token that replaces it, or empty if it is
+     * unknown, expired, revoked or already rotated.
+     */
+    Optional<Rotation> rotate(String token);
+
+    /**
+     * Revokes the family the token belongs to.
+     */
+    void revoke(String token);
+
+    /**
+     * Revokes every family of the user.
+     */
+    void revokeAll(Long userId);
+
+    record Rotation(Long userId, String subject, String token) {
+    }
+}
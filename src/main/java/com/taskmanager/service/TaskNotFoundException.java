@@ -0,0 +1,11 @@
+package com.taskmanager.service;
+
+/**
+ * Thrown when a write names a task the user does not have, so the whole request answers 404.
+ */
+public class TaskNotFoundException extends RuntimeException {
+
+    public TaskNotFoundException(String message) {
+        super(message);
+    }
+}
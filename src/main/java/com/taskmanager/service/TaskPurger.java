@@ -0,0 +1,84 @@
+package com.taskmanager.service;
+
+import com.taskmanager.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Physically removes soft-deleted tasks in the background. Each batch is its own short transaction
+ * followed by a pause, so a large cleanup never holds locks on {@code tasks} for long and leaves
+ * room for interactive writes in between.
+ */
+@Component
+public class TaskPurger {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskPurger.class);
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration delay;
+    private final int batchSize;
+    private final long pauseMs;
+    private final int maxBatches;
+
+    public TaskPurger(TaskRepository taskRepository, TransactionTemplate transactionTemplate,
+                      @Value("${app.tasks.purge.delay-seconds:300}") long delaySeconds,
+                      @Value("${app.tasks.purge.batch-size:500}") int batchSize,
+                      @Value("${app.tasks.purge.pause-ms:100}") long pauseMs,
+                      @Value("${app.tasks.purge.max-batches-per-run:100}") int maxBatches) {
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.delay = Duration.ofSeconds(delaySeconds);
+        this.batchSize = batchSize;
+        this.pauseMs = pauseMs;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(fixedDelayString = "${app.tasks.purge.interval-ms:60000}")
+    public void purge() {
+        int purged = purgeDeletedBefore(Instant.now().minus(delay));
+        if (purged > 0) {
+            logger.info("Purged {} soft-deleted tasks", purged);
+        }
+    }
+
+    /**
+     * Deletes up to {@code max-batches-per-run} batches of tasks soft-deleted before the cutoff and
+     * returns how many rows were removed. Whatever is left is picked up by the next run.
+     */
+    public int purgeDeletedBefore(Instant cutoff) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer purged = transactionTemplate.execute(status -> {
+                List<Long> ids = taskRepository.findPurgeableIds(cutoff, batchSize);
+                return ids.isEmpty() ? 0 : taskRepository.purgeByIds(ids);
+            });
+            total += purged;
+            if (purged < batchSize || !pause()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,12 +1,41 @@
 package com.taskmanager.service;
 
+import com.taskmanager.event.TaskChangedEvent;
+import com.taskmanager.model.OwnerTaskCounts;
 import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskListState;
+import com.taskmanager.model.TaskTombstone;
+import com.taskmanager.payload.request.TaskPatchRequest;
+import com.taskmanager.payload.response.TaskChangesResponse;
+import com.taskmanager.payload.response.TaskPageResponse;
 import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.repository.TaskTombstoneRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TaskService {
@@ -14,28 +43,340 @@ public class TaskService {
     @Autowired
     private TaskRepository taskRepository;
 
-    public List<Task> getAllTasks() {
-        return taskRepository.findAll();
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.tasks.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.tasks.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int jdbcBatchSize;
+
+    @Value("${app.tasks.changes.overlap-ms:1000}")
+    private long changesOverlapMs;
+
+    @Value("${app.tasks.tombstones.retention-days:30}")
+    private int tombstoneRetentionDays;
+
+    public List<Task> getAllTasks(Long ownerId) {
+        return taskRepository.findByOwnerIdOrderByIdAsc(ownerId);
+    }
+
+    public long countTasks(Long ownerId, Boolean completed) {
+        return completed == null
+                ? taskRepository.countByOwnerId(ownerId)
+                : taskRepository.countByOwnerIdAndCompleted(ownerId, completed);
+    }
+
+    // Dashboard reconciliation compares these with its live counts, so they come from the primary
+    // (a read-write transaction) rather than a replica that may lag behind.
+    @Transactional
+    public List<OwnerTaskCounts> getTaskCountsByOwner() {
+        return taskRepository.findCountsByOwner();
+    }
+
+    @Transactional
+    public OwnerTaskCounts getTaskCounts(Long ownerId) {
+        return taskRepository.findCountsByOwnerId(ownerId).orElse(new OwnerTaskCounts(ownerId, 0, 0));
+    }
+
+    public boolean taskExists(Long ownerId, Long id) {
+        return taskRepository.existsByIdAndOwnerId(id, ownerId);
+    }
+
+    public TaskListState getListState(Long ownerId) {
+        return taskRepository.findListState(ownerId);
+    }
+
+    /**
+     * Returns tasks changed and ids deleted after the watermark, or empty if deletes that old
+     * have already been purged and the client has to reload the full list.
+     * Runs on the primary: a lagging replica could miss rows older than the returned watermark.
+     */
+    @Transactional
+    public Optional<TaskChangesResponse> getChangesSince(Long ownerId, long sinceEpochMillis) {
+        Instant now = Instant.now();
+        if (sinceEpochMillis < now.minus(Duration.ofDays(tombstoneRetentionDays)).toEpochMilli()) {
+            return Optional.empty();
+        }
+        Instant since = Instant.ofEpochMilli(sinceEpochMillis);
+        List<Task> tasks = taskRepository.findByOwnerIdAndUpdatedAtAfterOrderByUpdatedAtAsc(ownerId, since);
+        List<Long> deletedIds = taskTombstoneRepository.findTaskIdsDeletedAfter(ownerId, since);
+        // Step back so rows stamped before now but committed after these reads are sent next time.
+        return Optional.of(new TaskChangesResponse(tasks, deletedIds, now.toEpochMilli() - changesOverlapMs));
+    }
+
+    public TaskPageResponse getTaskPage(Long ownerId, Long after, Integer size, Boolean completed) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        long cursor = after == null ? 0L : after;
+        List<Task> tasks = completed == null
+                ? taskRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(ownerId, cursor, Limit.of(pageSize))
+                : taskRepository.findByOwnerIdAndCompletedAndIdGreaterThanOrderByIdAsc(ownerId, completed, cursor, Limit.of(pageSize));
+        Long nextCursor = tasks.size() == pageSize ? tasks.get(tasks.size() - 1).getId() : null;
+        return new TaskPageResponse(tasks, nextCursor);
+    }
+
+    /**
+     * Hands every task of the owner to the consumer in id order without materialising the list.
+     * Each row is detached once consumed so the persistence context stays empty.
+     */
+    @Transactional(readOnly = true)
+    public void streamTasks(Long ownerId, Consumer<Task> consumer) {
+        try (Stream<Task> tasks = taskRepository.streamByOwnerId(ownerId)) {
+            consumeDetached(tasks, consumer);
+        }
+    }
+
+    /**
+     * Like {@link #streamTasks(Long, Consumer)} but across all owners, for rebuilding derived state.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllTasks(Consumer<Task> consumer) {
+        try (Stream<Task> tasks = taskRepository.streamAllByOrderByIdAsc()) {
+            consumeDetached(tasks, consumer);
+        }
+    }
+
+    // A task of another owner looks the same as a missing one.
+    public Optional<Task> getTaskById(Long ownerId, Long id) {
+        return taskRepository.findById(id).filter(task -> ownerId.equals(task.getOwnerId()));
     }
 
-    public Optional<Task> getTaskById(Long id) {
-        return taskRepository.findById(id);
+    /**
+     * Loads the owner's tasks with the given ids, in the order of the ids. Missing ids are skipped.
+     */
+    public List<Task> getTasksByIds(Long ownerId, List<Long> ids) {
+        Map<Long, Task> tasks = taskRepository.findByOwnerIdAndIdIn(ownerId, ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        return ids.stream().map(tasks::get).filter(Objects::nonNull).toList();
     }
 
-    public Task createTask(Task task) {
-        return taskRepository.save(task);
+    public Task createTask(Long ownerId, Task task) {
+        task.setId(null);
+        task.setVersion(null);
+        task.setOwnerId(ownerId);
+        Task saved = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChangedEvent.created(ownerId, List.of(saved)));
+        return saved;
     }
 
-    public Task updateTask(Long id, Task taskDetails) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+    public Task updateTask(Long ownerId, Long id, Task taskDetails) {
+        Task task = getTaskById(ownerId, id)
+                .orElseThrow(() -> new TaskNotFoundException("Task not found"));
+        boolean wasCompleted = task.isCompleted();
         task.setTitle(taskDetails.getTitle());
         task.setDescription(taskDetails.getDescription());
         task.setCompleted(taskDetails.isCompleted());
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChangedEvent.updated(ownerId, List.of(saved), completedDelta(wasCompleted, saved)));
+        return saved;
+    }
+
+    /**
+     * Applies the non-null fields of the patch. The task is read by primary key and written with a
+     * single {@code UPDATE ... WHERE id = ? AND version = ?} of just the changed columns. With an expected
+     * version a mismatch fails with {@link OptimisticLockingFailureException}; without one, a lost race is retried once under a row lock.
+     */
+    public Optional<Task> patchTask(Long ownerId, Long id, TaskPatchRequest patch, Long expectedVersion) {
+        try {
+            return transactionTemplate.execute(status -> applyPatch(ownerId, id, patch, expectedVersion, false));
+        } catch (OptimisticLockingFailureException e) {
+            if (expectedVersion != null) {
+                throw e;
+            }
+            return transactionTemplate.execute(status -> applyPatch(ownerId, id, patch, null, true));
+        }
+    }
+
+    private Optional<Task> applyPatch(Long ownerId, Long id, TaskPatchRequest patch, Long expectedVersion, boolean lock) {
+        Optional<Task> found = lock
+                ? Optional.ofNullable(entityManager.find(Task.class, id, LockModeType.PESSIMISTIC_WRITE))
+                        .filter(task -> ownerId.equals(task.getOwnerId()))
+                : getTaskById(ownerId, id);
+        if (found.isEmpty()) {
+            return found;
+        }
+        Task task = found.get();
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Task.class, id);
+        }
+        boolean wasCompleted = task.isCompleted();
+        boolean changed = false;
+        if (patch.getTitle() != null && !patch.getTitle().equals(task.getTitle())) {
+            task.setTitle(patch.getTitle());
+            changed = true;
+        }
+        if (patch.getDescription() != null && !patch.getDescription().equals(task.getDescription())) {
+            task.setDescription(patch.getDescription());
+            changed = true;
+        }
+        if (patch.getCompleted() != null && patch.getCompleted() != task.isCompleted()) {
+            task.setCompleted(patch.getCompleted());
+            changed = true;
+        }
+        if (changed) {
+            // Flush here so a lost race surfaces as a translated exception rather than at commit.
+            taskRepository.flush();
+            eventPublisher.publishEvent(TaskChangedEvent.updated(ownerId, List.of(task), completedDelta(wasCompleted, task)));
+        }
+        return found;
+    }
+
+    /**
+     * Soft-deletes the task with a conditional UPDATE, without reading it first: an open task takes
+     * one UPDATE, a completed one a second, followed by the tombstone insert.
+     */
+    @Transactional
+    public void deleteTask(Long ownerId, Long id) {
+        Instant now = deletionTime();
+        SoftDeleted deleted = softDelete(ownerId, List.of(id), now);
+        if (deleted.count() == 0) {
+            return;
+        }
+        entityManager.persist(new TaskTombstone(id, ownerId, now));
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(ownerId, List.of(id), -deleted.completed()));
+    }
+
+    /**
+     * Inserts all tasks in one transaction. The persistence context is flushed and cleared every
+     * JDBC batch so inserts go out as batched statements and memory stays bounded.
+     */
+    @Transactional
+    public List<Task> createTasks(Long ownerId, List<Task> tasks) {
+        List<Task> created = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            task.setId(null);
+            task.setVersion(null);
+            task.setOwnerId(ownerId);
+            entityManager.persist(task);
+            created.add(task);
+            if (batchFull(created.size())) {
+                flushAndClear();
+            }
+        }
+        flushAndClear();
+        eventPublisher.publishEvent(TaskChangedEvent.created(ownerId, created));
+        return created;
+    }
+
+    /**
+     * Applies all updates in one transaction, loading the affected rows with a single IN query.
+     */
+    @Transactional
+    public List<Task> updateTasks(Long ownerId, List<Task> taskDetails) {
+        Map<Long, Task> existing = taskRepository.findByOwnerIdAndIdIn(ownerId, taskDetails.stream().map(Task::getId).toList()).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        List<Task> updated = new ArrayList<>(taskDetails.size());
+        int completedDelta = 0;
+        for (Task details : taskDetails) {
+            Task task = existing.get(details.getId());
+            if (task == null) {
+                throw new TaskNotFoundException("Task not found: " + details.getId());
+            }
+            boolean wasCompleted = task.isCompleted();
+            task.setTitle(details.getTitle());
+            task.setDescription(details.getDescription());
+            task.setCompleted(details.isCompleted());
+            completedDelta += completedDelta(wasCompleted, task);
+            updated.add(task);
+        }
+        entityManager.flush();
+        eventPublisher.publishEvent(TaskChangedEvent.updated(ownerId, updated, completedDelta));
+        return updated;
+    }
+
+    /**
+     * Soft-deletes the owner's tasks among the ids with the same conditional UPDATEs as a single
+     * delete. Only when some ids were missing or someone else's are the deleted ids read back, for
+     * the tombstones and the change event.
+     */
+    @Transactional
+    public void deleteTasks(Long ownerId, List<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        Instant now = deletionTime();
+        SoftDeleted deleted = softDelete(ownerId, distinctIds, now);
+        if (deleted.count() == 0) {
+            return;
+        }
+        List<Long> deletedIds = deleted.count() == distinctIds.size()
+                ? distinctIds
+                : taskRepository.findIdsDeletedAt(ownerId, distinctIds, now);
+        for (int i = 0; i < deletedIds.size(); i++) {
+            entityManager.persist(new TaskTombstone(deletedIds.get(i), ownerId, now));
+            if (batchFull(i + 1)) {
+                flushAndClear();
+            }
+        }
+        flushAndClear();
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(ownerId, deletedIds, -deleted.completed()));
+    }
+
+    /**
+     * Runs the soft-delete UPDATE for open tasks, then for completed ones if some ids are left, so
+     * the update counts give the dashboard its completed delta. A task whose completed flag flips
+     * between the two statements is missed by both, so rounds repeat until one deletes nothing.
+     */
+    private SoftDeleted softDelete(Long ownerId, List<Long> ids, Instant now) {
+        int count = 0;
+        int completed = 0;
+        int round;
+        do {
+            round = taskRepository.softDeleteByIds(ownerId, ids, false, now);
+            if (count + round < ids.size()) {
+                int roundCompleted = taskRepository.softDeleteByIds(ownerId, ids, true, now);
+                completed += roundCompleted;
+                round += roundCompleted;
+            }
+            count += round;
+        } while (round > 0 && count < ids.size());
+        return new SoftDeleted(count, completed);
+    }
+
+    // Millisecond precision survives every TIMESTAMP column, so findIdsDeletedAt matches it exactly.
+    private static Instant deletionTime() {
+        return Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    private record SoftDeleted(int count, int completed) {
+    }
+
+    private static int completedDelta(boolean wasCompleted, Task task) {
+        return (task.isCompleted() ? 1 : 0) - (wasCompleted ? 1 : 0);
+    }
+
+    // Clients whose watermark is older than the retention get a 410 and reload the full list.
+    @Scheduled(fixedDelayString = "${app.tasks.tombstones.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeTombstones() {
+        taskTombstoneRepository.deleteOlderThan(Instant.now().minus(Duration.ofDays(tombstoneRetentionDays)));
+    }
+
+    private void consumeDetached(Stream<Task> tasks, Consumer<Task> consumer) {
+        tasks.forEach(task -> {
+            consumer.accept(task);
+            entityManager.detach(task);
+        });
+    }
+
+    // With batching disabled (batch_size=0) every statement goes out alone, so flush per row.
+    private boolean batchFull(int pending) {
+        return jdbcBatchSize <= 0 || pending % jdbcBatchSize == 0;
     }
 
-    public void deleteTask(Long id) {
-        taskRepository.deleteById(id);
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
     }
 }
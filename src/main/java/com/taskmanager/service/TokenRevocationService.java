@@ -0,0 +1,19 @@
+package com.taskmanager.service;
+
+/**
+ * Revokes access tokens on every node. Selected by {@code app.security.revocation.store}; each node
+ * answers revocation checks from its own {@link com.taskmanager.security.jwt.TokenRevocationList}.
+ */
+public interface TokenRevocationService {
+
+    /**
+     * Revokes one token by its {@code jti}; the entry is kept until the token would have expired.
+     */
+    void revokeToken(String tokenId, long expiresAtMillis);
+
+    /**
+     * Revokes every token of the subject issued before the given second. Other nodes also drop
+     * the subject's cached user details, so callers only need to evict them locally.
+     */
+    void revokeIssuedBefore(String subject, long epochSecond);
+}
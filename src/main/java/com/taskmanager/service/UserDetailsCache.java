@@ -0,0 +1,88 @@
+package com.taskmanager.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.taskmanager.security.AuthenticatedUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-based cache of resolved principals keyed by email.
+ * <p>
+ * Only immutable snapshots are stored and every lookup returns a fresh {@link UserDetails},
+ * because Spring Security erases the password of the instance it authenticated.
+ * Call {@link #evict(String)} whenever a user's password or roles change.
+ * <p>
+ * Misses are loaded outside the cache: Caffeine's computing {@code get} runs the loader under a
+ * {@code ConcurrentHashMap} bin lock, and a JDBC call there would pin a virtual thread's carrier.
+ * Concurrent misses for one email may therefore each load it once.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final Cache<String, Snapshot> cache;
+    // Bumped by every eviction so a load that raced with one does not store what it read.
+    private final AtomicLong evictions = new AtomicLong();
+
+    public UserDetailsCache(@Value("${app.security.user-cache.ttl-seconds:300}") long ttlSeconds,
+                            @Value("${app.security.user-cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    public UserDetails get(String email, Function<String, UserDetails> loader) {
+        Snapshot snapshot = cache.getIfPresent(email);
+        if (snapshot == null) {
+            long evictionsBefore = evictions.get();
+            snapshot = Snapshot.of(loader.apply(email));
+            if (evictions.get() == evictionsBefore) {
+                cache.put(email, snapshot);
+            }
+        }
+        return snapshot.toUserDetails();
+    }
+
+    public void evict(String email) {
+        if (email != null) {
+            evictions.incrementAndGet();
+            cache.invalidate(email);
+        }
+    }
+
+    public void evictAll() {
+        evictions.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public Cache<String, ?> nativeCache() {
+        return cache;
+    }
+
+    private record Snapshot(Long id, String username, String password, List<GrantedAuthority> authorities) {
+
+        static Snapshot of(UserDetails userDetails) {
+            Long id = userDetails instanceof AuthenticatedUser user ? user.getId() : null;
+            return new Snapshot(id, userDetails.getUsername(), userDetails.getPassword(),
+                    List.copyOf(userDetails.getAuthorities()));
+        }
+
+        UserDetails toUserDetails() {
+            return new AuthenticatedUser(id, username, password, authorities);
+        }
+    }
+}
@@ -1,30 +1,60 @@
 package com.taskmanager.service;
 
+import com.taskmanager.datasource.ReadYourWrites;
 import com.taskmanager.entity.User;
 import com.taskmanager.repository.UserRepository;
+import com.taskmanager.security.AuthenticatedUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final ReadYourWrites readYourWrites;
 
     @Autowired
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(UserRepository userRepository, UserDetailsCache userDetailsCache,
+                                  ReadYourWrites readYourWrites) {
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.readYourWrites = readYourWrites;
     }
 
+    // Cache misses read from a replica unless this user's password or roles changed just now.
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        return userDetailsCache.get(email, key -> readYourWrites.as(key, () -> loadFromRepository(key)));
+    }
+
+    /**
+     * Stores a re-hashed password after a successful login with an outdated hash.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        return readYourWrites.as(userDetails.getUsername(), () -> {
+            User user = userRepository.findByEmail(userDetails.getUsername())
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + userDetails.getUsername()));
+            user.setPassword(newPassword);
+            userRepository.save(user);
+            userDetailsCache.evict(user.getEmail());
+            return new AuthenticatedUser(user.getId(), user.getEmail(), newPassword, userDetails.getAuthorities());
+        });
+    }
+
+    private UserDetails loadFromRepository(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
@@ -32,7 +62,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 .map(role -> new SimpleGrantedAuthority(role.getName()))
                 .collect(Collectors.toList());
 
-        return new org.springframework.security.core.userdetails.User(
+        return new AuthenticatedUser(
+                user.getId(),
                 user.getEmail(),
                 user.getPassword(),
                 authorities
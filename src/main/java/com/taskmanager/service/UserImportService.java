@@ -0,0 +1,394 @@
+package com.taskmanager.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.entity.Role;
+import com.taskmanager.payload.request.UserImportRow;
+import com.taskmanager.payload.response.UserImportResponse;
+import com.taskmanager.repository.RoleRepository;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.security.BoundedPasswordEncoder;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports users from a CSV or NDJSON stream in chunks. Each chunk is checked against the database
+ * with one query per unique column, its passwords are hashed in parallel and it is written with
+ * JDBC batches in its own transaction, so memory stays bounded and a bad row only rejects itself.
+ * If the batch still hits a unique constraint, because someone registered one of the users after
+ * the check, the chunk is written again row by row so only the conflicting rows are rejected.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    // Oracle rejects IN lists with more than 1000 elements.
+    private static final int MAX_CHUNK_SIZE = 1000;
+
+    private static final String INSERT_USER = "INSERT INTO users (username, password, email) VALUES (:username, :password, :email)";
+    private static final String SELECT_USER_IDS = "SELECT id, email FROM users WHERE email IN (:emails)";
+    private static final String INSERT_USER_ROLE = "INSERT INTO user_roles (user_id, role_id) VALUES (:userId, :roleId)";
+
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final PasswordEncoder passwordEncoder;
+    private final ForkJoinPool hashingPool;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public UserImportService(UserRepository userRepository, RoleRepository roleRepository,
+                             NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                             EntityManagerFactory entityManagerFactory, ObjectMapper objectMapper, Validator validator,
+                             PasswordEncoder passwordEncoder,
+                             @Value("${app.users.import.chunk-size:1000}") int chunkSize,
+                             @Value("${app.users.import.hashing-parallelism:0}") int hashingParallelism,
+                             @Value("${app.users.import.max-reported-errors:100}") int maxReportedErrors) {
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        // Imports run on their own pool, so they skip the admission queue that protects interactive logins.
+        this.passwordEncoder = passwordEncoder instanceof BoundedPasswordEncoder bounded ? bounded.unbounded() : passwordEncoder;
+        this.hashingPool = new ForkJoinPool(hashingParallelism > 0 ? hashingParallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = Math.max(1, Math.min(chunkSize, MAX_CHUNK_SIZE));
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdownNow();
+    }
+
+    /**
+     * Imports a CSV file whose header names the username, email and password columns and optionally
+     * a roles column with role names separated by semicolons.
+     */
+    public UserImportResponse importCsv(InputStream in) throws IOException {
+        return importLines(in, new CsvParser());
+    }
+
+    /**
+     * Imports newline-delimited JSON objects with username, email, password and an optional roles array.
+     */
+    public UserImportResponse importNdjson(InputStream in) throws IOException {
+        return importLines(in, (number, text) -> {
+            try {
+                return Line.of(number, objectMapper.readValue(text, UserImportRow.class));
+            } catch (JsonProcessingException e) {
+                return Line.rejected(number, "Invalid JSON");
+            }
+        });
+    }
+
+    private UserImportResponse importLines(InputStream in, LineParser parser) throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A user import is already running");
+        }
+        try {
+            Import run = new Import(roleRepository.findAll().stream()
+                    .collect(Collectors.toMap(Role::getName, Function.identity())));
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            List<Line> chunk = new ArrayList<>(chunkSize);
+            String text;
+            int number = 0;
+            while ((text = reader.readLine()) != null) {
+                number++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                Line line = parser.parse(number, text);
+                if (line == null) {
+                    continue;
+                }
+                chunk.add(line);
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, run);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, run);
+            }
+            logger.info("Imported {} users, rejected {}", run.imported, run.rejected);
+            return new UserImportResponse(run.imported, run.rejected, run.errors);
+        } finally {
+            // Rows written through JDBC bypass Hibernate, so cached query results may still say they do not exist.
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+            running.set(false);
+        }
+    }
+
+    private void importChunk(List<Line> chunk, Import run) {
+        List<Line> valid = new ArrayList<>(chunk.size());
+        for (Line line : chunk) {
+            String error = line.error != null ? line.error : validate(line.row, run.roles);
+            if (error != null) {
+                run.reject(line.number, error);
+            } else {
+                valid.add(line);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        Set<String> takenEmails = new HashSet<>(userRepository.findExistingEmails(
+                valid.stream().map(line -> line.row.getEmail()).toList()));
+        Set<String> takenUsernames = new HashSet<>(userRepository.findExistingUsernames(
+                valid.stream().map(line -> line.row.getUsername()).toList()));
+        // Rows claim their email and username only once accepted, so a rejected row never blocks a later one.
+        valid.removeIf(line -> {
+            String error = takenEmails.contains(line.row.getEmail()) ? "Email is already in use"
+                    : takenUsernames.contains(line.row.getUsername()) ? "Username is already taken"
+                    : run.emails.contains(line.row.getEmail()) ? "Duplicate email in file"
+                    : run.usernames.contains(line.row.getUsername()) ? "Duplicate username in file"
+                    : null;
+            if (error != null) {
+                run.reject(line.number, error);
+                return true;
+            }
+            run.emails.add(line.row.getEmail());
+            run.usernames.add(line.row.getUsername());
+            return false;
+        });
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = hashingPool.submit(() -> valid.parallelStream()
+                .map(line -> passwordEncoder.encode(line.row.getPassword()))
+                .toList()).join();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(valid, hashes, run.roles));
+            run.imported += valid.size();
+        } catch (DataIntegrityViolationException e) {
+            // Another request registered one of these users after the uniqueness check.
+            importOneByOne(valid, hashes, run);
+        }
+    }
+
+    // Rare enough that a statement per row is fine; the rows that do not conflict are still imported.
+    private void importOneByOne(List<Line> lines, List<String> hashes, Import run) {
+        for (int i = 0; i < lines.size(); i++) {
+            Line line = lines.get(i);
+            String hash = hashes.get(i);
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(List.of(line), List.of(hash), run.roles));
+                run.imported++;
+            } catch (DataIntegrityViolationException e) {
+                run.reject(line.number, "Conflicts with a user registered during the import");
+            }
+        }
+    }
+
+    private void insert(List<Line> lines, List<String> hashes, Map<String, Role> roles) {
+        SqlParameterSource[] users = new SqlParameterSource[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            UserImportRow row = lines.get(i).row;
+            users[i] = new MapSqlParameterSource()
+                    .addValue("username", row.getUsername())
+                    .addValue("password", hashes.get(i))
+                    .addValue("email", row.getEmail());
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER, users);
+
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query(SELECT_USER_IDS,
+                new MapSqlParameterSource("emails", lines.stream().map(line -> line.row.getEmail()).toList()),
+                rs -> {
+                    ids.put(rs.getString("email"), rs.getLong("id"));
+                });
+        List<SqlParameterSource> userRoles = new ArrayList<>();
+        for (Line line : lines) {
+            for (String role : roleNames(line.row)) {
+                userRoles.add(new MapSqlParameterSource()
+                        .addValue("userId", ids.get(line.row.getEmail()))
+                        .addValue("roleId", roles.get(role).getId()));
+            }
+        }
+        if (!userRoles.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_USER_ROLE, userRoles.toArray(SqlParameterSource[]::new));
+        }
+    }
+
+    private String validate(UserImportRow row, Map<String, Role> roles) {
+        Set<ConstraintViolation<UserImportRow>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<UserImportRow> violation = violations.iterator().next();
+            return "Validation error: " + violation.getPropertyPath() + " " + violation.getMessage();
+        }
+        for (String role : roleNames(row)) {
+            if (!roles.containsKey(role)) {
+                return "Unknown role: " + role;
+            }
+        }
+        return null;
+    }
+
+    private static Set<String> roleNames(UserImportRow row) {
+        return row.getRoles() == null ? Set.of() : new HashSet<>(row.getRoles());
+    }
+
+    /**
+     * Splits RFC 4180 style lines; quoted fields may contain commas and doubled quotes but not line breaks.
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @FunctionalInterface
+    private interface LineParser {
+        // Returns null for lines that carry no user, such as a header.
+        Line parse(int number, String text);
+    }
+
+    private static class CsvParser implements LineParser {
+        private int username = -1;
+        private int email = -1;
+        private int password = -1;
+        private int roles = -1;
+        private int width;
+
+        @Override
+        public Line parse(int number, String text) {
+            if (width == 0) {
+                readHeader(text);
+                return null;
+            }
+            List<String> fields;
+            try {
+                fields = splitCsvLine(text);
+            } catch (IllegalArgumentException e) {
+                return Line.rejected(number, e.getMessage());
+            }
+            if (fields.size() < width) {
+                return Line.rejected(number, "Expected " + width + " columns but found " + fields.size());
+            }
+            List<String> roleNames = roles < 0 || fields.get(roles).isBlank() ? null
+                    : Arrays.stream(fields.get(roles).split(";")).map(String::trim).filter(name -> !name.isEmpty()).toList();
+            return Line.of(number, new UserImportRow(fields.get(username).trim(), fields.get(password),
+                    fields.get(email).trim(), roleNames));
+        }
+
+        private void readHeader(String text) {
+            List<String> columns = splitCsvLine(text).stream().map(column -> column.trim().toLowerCase()).toList();
+            username = columns.indexOf("username");
+            email = columns.indexOf("email");
+            password = columns.indexOf("password");
+            roles = columns.indexOf("roles");
+            if (username < 0 || email < 0 || password < 0) {
+                throw new IllegalArgumentException("CSV header must name the username, email and password columns");
+            }
+            width = Math.max(Math.max(username, email), Math.max(password, roles)) + 1;
+        }
+    }
+
+    private static class Line {
+        final int number;
+        final UserImportRow row;
+        final String error;
+
+        private Line(int number, UserImportRow row, String error) {
+            this.number = number;
+            this.row = row;
+            this.error = error;
+        }
+
+        static Line of(int number, UserImportRow row) {
+            return new Line(number, row, null);
+        }
+
+        static Line rejected(int number, String error) {
+            return new Line(number, null, error);
+        }
+    }
+
+    // State of one import: the role lookup and the emails and usernames already claimed earlier in the file.
+    private class Import {
+        final Map<String, Role> roles;
+        final Set<String> emails = new HashSet<>();
+        final Set<String> usernames = new HashSet<>();
+        final List<UserImportResponse.RowError> errors = new ArrayList<>();
+        int imported;
+        int rejected;
+
+        Import(Map<String, Role> roles) {
+            this.roles = roles;
+        }
+
+        void reject(int line, String message) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new UserImportResponse.RowError(line, message));
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.taskmanager.service.impl;
 
 import com.taskmanager.service.EmailService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
@@ -8,54 +10,240 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Queues password reset emails and delivers them from a small pool of worker threads.
+ * <p>
+ * Callers only wait for queue space, bounded by {@code app.mail.dispatch.offer-timeout-ms}. Each
+ * worker takes whatever is queued, up to {@code app.mail.dispatch.batch-size} emails, and hands it
+ * to the mail sender in one call, which Spring's sender delivers over a single SMTP connection. A
+ * burst of resets therefore pays for the SMTP handshake and STARTTLS once per batch instead of once
+ * per email. Failed emails are retried with exponential backoff; an exception of any kind fails
+ * only the emails of that batch, never the worker.
+ * <p>
+ * Workers are platform threads on purpose: Jakarta Mail's SMTP transport holds monitors around
+ * socket I/O, which would pin a virtual thread's carrier for the whole send.
+ */
 @Service
 public class EmailServiceImpl implements EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailServiceImpl.class);
+    private static final long WORKER_POLL_MILLIS = 500;
 
-    @Autowired
-    private JavaMailSender mailSender;
+    private final JavaMailSender mailSender;
+    private final String fromEmail;
+    private final String frontendUrl;
+    private final int workerCount;
+    private final long offerTimeoutMillis;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final int batchSize;
+
+    private final BlockingQueue<OutgoingEmail> queue;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
 
-    @Value("${spring.mail.properties.mail.smtp.from}")
-    private String fromEmail;
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder sendLatencyTotalMillis = new LongAdder();
+    private final AtomicLong sendLatencyMaxMillis = new AtomicLong();
 
-    @Value("${app.frontend.url}")
-    private String frontendUrl;
+    @Autowired
+    public EmailServiceImpl(JavaMailSender mailSender,
+                            @Value("${spring.mail.properties.mail.smtp.from}") String fromEmail,
+                            @Value("${app.frontend.url}") String frontendUrl,
+                            @Value("${app.mail.dispatch.queue-capacity:1000}") int queueCapacity,
+                            @Value("${app.mail.dispatch.workers:4}") int workerCount,
+                            @Value("${app.mail.dispatch.offer-timeout-ms:100}") long offerTimeoutMillis,
+                            @Value("${app.mail.dispatch.max-attempts:3}") int maxAttempts,
+                            @Value("${app.mail.dispatch.retry-backoff-ms:500}") long retryBackoffMillis,
+                            @Value("${app.mail.dispatch.batch-size:50}") int batchSize) {
+        this.mailSender = mailSender;
+        this.fromEmail = fromEmail;
+        this.frontendUrl = frontendUrl;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workerCount = workerCount;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.batchSize = Math.max(batchSize, 1);
+    }
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Thread.ofPlatform().daemon().name("email-dispatch-" + i).start(this::runWorker));
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
 
     @Override
     public void sendPasswordResetEmail(String toEmail, String token) {
+        String resetLink = frontendUrl + "reset-password?token=" + token;
+        String emailBody = "<p>You have requested a password reset.</p>"
+                + "<p>Please click on the following link to reset your password:</p>"
+                + "<p><a href=\"" + resetLink + "\">" + resetLink + "</a></p>"
+                + "<p>This link will expire in 1 hour.</p>"
+                + "<p>If you did not request this, please ignore this email.</p>";
+
+        OutgoingEmail email = new OutgoingEmail(toEmail.trim(), "Password Reset Request", emailBody);
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            if (!running || !queue.offer(email, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                logger.error("Email queue full, dropping password reset email to: {}", email.to());
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected.increment();
+            return;
+        }
+        logger.info("Queued password reset email from: {} to: {}", fromEmail, email.to());
+    }
 
-            logger.info("Attempting to send password reset email from: {} to: {}", fromEmail, toEmail.trim());
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getSentCount() {
+        return sent.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
 
-            InternetAddress fromAddressObj = new InternetAddress(fromEmail);
-            helper.setFrom(fromAddressObj);
-            helper.setTo(toEmail.trim()); // Trim the recipient email for safety
-            helper.setSubject("Password Reset Request");
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
 
-            String resetLink = frontendUrl + "reset-password?token=" + token;
-            String emailBody = "<p>You have requested a password reset.</p>"
-                    + "<p>Please click on the following link to reset your password:</p>"
-                    + "<p><a href=\"" + resetLink + "\">" + resetLink + "</a></p>"
-                    + "<p>This link will expire in 1 hour.</p>"
-                    + "<p>If you did not request this, please ignore this email.</p>";
+    public long getSendLatencyTotalMillis() {
+        return sendLatencyTotalMillis.sum();
+    }
 
-            helper.setText(emailBody, true); // Set to true for HTML
+    public long getSendLatencyMaxMillis() {
+        return sendLatencyMaxMillis.get();
+    }
 
-            logger.debug("Email content: {}", emailBody);
+    private void runWorker() {
+        try {
+            // Keep draining after stop() so queued emails are not lost on shutdown.
+            while (running || !queue.isEmpty()) {
+                OutgoingEmail first = queue.poll(WORKER_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<OutgoingEmail> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                deliver(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-            mailSender.send(message);
-            logger.info("Password reset email sent successfully to: {}", toEmail);
+    private void deliver(List<OutgoingEmail> batch) throws InterruptedException {
+        List<OutgoingEmail> pending = batch;
+        for (int attempt = 1; ; attempt++) {
+            pending = send(pending);
+            if (pending.isEmpty()) {
+                return;
+            }
+            if (attempt >= maxAttempts) {
+                failed.add(pending.size());
+                pending.forEach(email -> logger.error("Error sending password reset email to: {} after {} attempts", email.to(), maxAttempts));
+                return;
+            }
+            long backoff = retryBackoffMillis << (attempt - 1);
+            logger.warn("Sending {} email(s) failed (attempt {}), retrying in {} ms", pending.size(), attempt, backoff);
+            Thread.sleep(backoff);
+        }
+    }
 
-        } catch (MessagingException e) {
-            logger.error("Error sending password reset email to: {}", toEmail, e);
-            // Consider throwing a custom exception here if you want to handle email sending failures differently
+    // Sends the emails in one call and returns those worth retrying.
+    private List<OutgoingEmail> send(List<OutgoingEmail> emails) {
+        Map<MimeMessage, OutgoingEmail> messages = new LinkedHashMap<>();
+        for (OutgoingEmail email : emails) {
+            try {
+                messages.put(buildMessage(email), email);
+            } catch (MessagingException | RuntimeException e) {
+                // Building again would fail the same way.
+                failed.increment();
+                logger.error("Could not build password reset email to: {}", email.to(), e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return List.of();
         }
+        List<OutgoingEmail> unsent = new ArrayList<>();
+        long startNanos = System.nanoTime();
+        try {
+            mailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            // Only the failed messages are keyed; an empty map means the connection failed to close after sending.
+            e.getFailedMessages().forEach((message, cause) -> {
+                OutgoingEmail email = messages.get(message);
+                if (email != null) {
+                    unsent.add(email);
+                    logger.debug("Sending email to: {} failed", email.to(), cause);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Connection, authentication or anything unexpected: nothing in the batch is known to have gone out.
+            logger.warn("Sending {} email(s) failed", messages.size(), e);
+            return new ArrayList<>(messages.values());
+        }
+        int delivered = messages.size() - unsent.size();
+        if (delivered > 0) {
+            recordLatency(startNanos, delivered);
+            sent.add(delivered);
+            messages.values().stream().filter(email -> !unsent.contains(email))
+                    .forEach(email -> logger.info("Password reset email sent successfully to: {}", email.to()));
+        }
+        return unsent;
+    }
+
+    private MimeMessage buildMessage(OutgoingEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(new InternetAddress(fromEmail));
+        helper.setTo(email.to());
+        helper.setSubject(email.subject());
+        helper.setText(email.htmlBody(), true);
+        message.saveChanges();
+        return message;
+    }
+
+    // A batch shares one connection, so each email is charged an equal share of its time.
+    private void recordLatency(long startNanos, int delivered) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        sendLatencyTotalMillis.add(millis);
+        sendLatencyMaxMillis.accumulateAndGet(millis / delivered, Math::max);
+    }
+
+    private record OutgoingEmail(String to, String subject, String htmlBody) {
     }
-}
\ No newline at end of file
+}
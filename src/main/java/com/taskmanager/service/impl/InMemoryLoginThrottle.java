@@ -0,0 +1,79 @@
+package com.taskmanager.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taskmanager.service.LoginThrottleService;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Node-local sliding window used when Redis is unavailable.
+ * <p>
+ * Each account keeps a ring of its last {@code maxAttempts} failure timestamps, updated with
+ * atomic writes only. The ring lives in a bounded Caffeine cache that drops accounts idle for
+ * longer than the window, since none of their failures can still count.
+ */
+public class InMemoryLoginThrottle implements LoginThrottleService {
+
+    private final int maxAttempts;
+    private final long windowMillis;
+    private final LongSupplier clock;
+    private final Cache<String, FailureRing> failures;
+
+    public InMemoryLoginThrottle(int maxAttempts, Duration window, long maxAccounts) {
+        this(maxAttempts, window, maxAccounts, System::currentTimeMillis);
+    }
+
+    InMemoryLoginThrottle(int maxAttempts, Duration window, long maxAccounts, LongSupplier clock) {
+        this.maxAttempts = maxAttempts;
+        this.windowMillis = window.toMillis();
+        this.clock = clock;
+        this.failures = Caffeine.newBuilder()
+                .expireAfterAccess(window)
+                .maximumSize(maxAccounts)
+                .build();
+    }
+
+    @Override
+    public boolean isBlocked(String email) {
+        FailureRing ring = failures.getIfPresent(email);
+        return ring != null && ring.countSince(clock.getAsLong() - windowMillis) >= maxAttempts;
+    }
+
+    @Override
+    public void recordFailure(String email) {
+        failures.get(email, key -> new FailureRing(maxAttempts)).add(clock.getAsLong());
+    }
+
+    @Override
+    public void reset(String email) {
+        failures.invalidate(email);
+    }
+
+    private static final class FailureRing {
+
+        private final AtomicLongArray timestamps;
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        FailureRing(int size) {
+            this.timestamps = new AtomicLongArray(size);
+        }
+
+        void add(long nowMillis) {
+            timestamps.set(Math.floorMod(cursor.getAndIncrement(), timestamps.length()), nowMillis);
+        }
+
+        int countSince(long fromMillis) {
+            int count = 0;
+            for (int i = 0; i < timestamps.length(); i++) {
+                if (timestamps.get(i) > fromMillis) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.taskmanager.service.impl;
+
+import com.taskmanager.entity.PasswordResetToken;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.PasswordResetTokenRepository;
+import com.taskmanager.service.PasswordResetTokenStore;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps reset tokens in the {@code password_reset_token} table, looked up through the unique index
+ * on {@code token}. Expired rows are deleted by a scheduled purge in bounded batches.
+ */
+@Service
+@ConditionalOnProperty(name = "app.security.password-reset.store", havingValue = "jpa", matchIfMissing = true)
+public class JpaPasswordResetTokenStore implements PasswordResetTokenStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JpaPasswordResetTokenStore.class);
+
+    private final PasswordResetTokenRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final int purgeBatchSize;
+    private final int purgeMaxBatches;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public JpaPasswordResetTokenStore(PasswordResetTokenRepository repository, TransactionTemplate transactionTemplate,
+                                      @Value("${app.security.password-reset.ttl-minutes:60}") long ttlMinutes,
+                                      @Value("${app.security.password-reset.purge-batch-size:1000}") int purgeBatchSize,
+                                      @Value("${app.security.password-reset.purge-max-batches-per-run:100}") int purgeMaxBatches) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.purgeBatchSize = purgeBatchSize;
+        this.purgeMaxBatches = purgeMaxBatches;
+    }
+
+    @Override
+    @Transactional
+    public String issue(Long userId) {
+        repository.deleteByUserId(userId);
+        PasswordResetToken resetToken = new PasswordResetToken();
+        resetToken.setToken(UUID.randomUUID().toString());
+        resetToken.setUser(entityManager.getReference(User.class, userId));
+        resetToken.setExpiryDate(LocalDateTime.now().plus(ttl));
+        repository.save(resetToken);
+        return resetToken.getToken();
+    }
+
+    @Override
+    @Transactional
+    public Optional<Long> redeem(String token) {
+        Optional<PasswordResetToken> found = repository.findByToken(token);
+        if (found.isEmpty() || repository.deleteOne(found.get().getId()) == 0
+                || found.get().getExpiryDate().isBefore(LocalDateTime.now())) {
+            return Optional.empty();
+        }
+        return Optional.of(found.get().getUser().getId());
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.password-reset.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = purgeExpiredBefore(LocalDateTime.now());
+        if (purged > 0) {
+            logger.info("Purged {} expired password reset tokens", purged);
+        }
+    }
+
+    // Each batch is its own short transaction; anything beyond the per-run cap waits for the next run.
+    int purgeExpiredBefore(LocalDateTime now) {
+        int total = 0;
+        for (int batch = 0; batch < purgeMaxBatches; batch++) {
+            Integer purged = transactionTemplate.execute(status -> {
+                List<Long> ids = repository.findExpiredIds(now, Limit.of(purgeBatchSize));
+                repository.deleteAllByIdInBatch(ids);
+                return ids.size();
+            });
+            total += purged;
+            if (purged < purgeBatchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,132 @@
+package com.taskmanager.service.impl;
+
+import com.taskmanager.entity.RefreshToken;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.RefreshTokenRepository;
+import com.taskmanager.service.RefreshTokenStore;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps refresh tokens in the {@code refresh_token} table, looked up through the unique index on
+ * {@code token_hash}. Rotation is a conditional update, so of two requests presenting the same
+ * token only one succeeds. Expired rows are deleted by a scheduled purge in bounded batches.
+ */
+@Service
+@ConditionalOnProperty(name = "app.security.refresh-token.store", havingValue = "jpa", matchIfMissing = true)
+public class JpaRefreshTokenStore implements RefreshTokenStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JpaRefreshTokenStore.class);
+
+    private final RefreshTokenRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final int purgeBatchSize;
+    private final int purgeMaxBatches;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public JpaRefreshTokenStore(RefreshTokenRepository repository, TransactionTemplate transactionTemplate,
+                                @Value("${app.security.refresh-token.ttl-days:14}") long ttlDays,
+                                @Value("${app.security.refresh-token.purge-batch-size:1000}") int purgeBatchSize,
+                                @Value("${app.security.refresh-token.purge-max-batches-per-run:100}") int purgeMaxBatches) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.ttl = Duration.ofDays(ttlDays);
+        this.purgeBatchSize = purgeBatchSize;
+        this.purgeMaxBatches = purgeMaxBatches;
+    }
+
+    @Override
+    @Transactional
+    public String issue(Long userId, String subject) {
+        String token = RefreshTokens.generate();
+        save(token, entityManager.getReference(User.class, userId), subject, UUID.randomUUID().toString(),
+                LocalDateTime.now().plus(ttl));
+        return token;
+    }
+
+    @Override
+    @Transactional
+    public Optional<Rotation> rotate(String token) {
+        Optional<RefreshToken> found = repository.findByTokenHash(RefreshTokens.hash(token));
+        if (found.isEmpty() || found.get().getExpiryDate().isBefore(LocalDateTime.now())) {
+            return Optional.empty();
+        }
+        RefreshToken current = found.get();
+        if (current.isUsed() || repository.markUsed(current.getId()) == 0) {
+            repository.deleteByFamilyId(current.getFamilyId());
+            logger.warn("Refresh token reused for user {}; revoked its family", current.getUser().getId());
+            return Optional.empty();
+        }
+        String next = RefreshTokens.generate();
+        LocalDateTime expiryDate = LocalDateTime.now().plus(ttl);
+        save(next, current.getUser(), current.getSubject(), current.getFamilyId(), expiryDate);
+        repository.extendFamily(current.getFamilyId(), expiryDate);
+        return Optional.of(new Rotation(current.getUser().getId(), current.getSubject(), next));
+    }
+
+    @Override
+    @Transactional
+    public void revoke(String token) {
+        repository.findByTokenHash(RefreshTokens.hash(token))
+                .ifPresent(found -> repository.deleteByFamilyId(found.getFamilyId()));
+    }
+
+    @Override
+    @Transactional
+    public void revokeAll(Long userId) {
+        repository.deleteByUserId(userId);
+    }
+
+    private void save(String token, User user, String subject, String familyId, LocalDateTime expiryDate) {
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(RefreshTokens.hash(token));
+        refreshToken.setUser(user);
+        refreshToken.setSubject(subject);
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setExpiryDate(expiryDate);
+        repository.save(refreshToken);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.refresh-token.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = purgeExpiredBefore(LocalDateTime.now());
+        if (purged > 0) {
+            logger.info("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    // Each batch is its own short transaction; anything beyond the per-run cap waits for the next run.
+    int purgeExpiredBefore(LocalDateTime now) {
+        int total = 0;
+        for (int batch = 0; batch < purgeMaxBatches; batch++) {
+            Integer purged = transactionTemplate.execute(status -> {
+                List<Long> ids = repository.findExpiredIds(now, Limit.of(purgeBatchSize));
+                repository.deleteAllByIdInBatch(ids);
+                return ids.size();
+            });
+            total += purged;
+            if (purged < purgeBatchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
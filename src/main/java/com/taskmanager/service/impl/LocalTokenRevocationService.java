@@ -0,0 +1,30 @@
+package com.taskmanager.service.impl;
+
+import com.taskmanager.security.jwt.TokenRevocationList;
+import com.taskmanager.service.TokenRevocationService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Single-node revocation: entries only go to this node's list.
+ */
+@Service
+@ConditionalOnProperty(name = "app.security.revocation.store", havingValue = "local", matchIfMissing = true)
+public class LocalTokenRevocationService implements TokenRevocationService {
+
+    private final TokenRevocationList revocationList;
+
+    public LocalTokenRevocationService(TokenRevocationList revocationList) {
+        this.revocationList = revocationList;
+    }
+
+    @Override
+    public void revokeToken(String tokenId, long expiresAtMillis) {
+        revocationList.revokeToken(tokenId, expiresAtMillis);
+    }
+
+    @Override
+    public void revokeIssuedBefore(String subject, long epochSecond) {
+        revocationList.revokeIssuedBefore(subject, epochSecond);
+    }
+}
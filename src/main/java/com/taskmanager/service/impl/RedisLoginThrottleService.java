@@ -0,0 +1,102 @@
+package com.taskmanager.service.impl;
+
+import com.taskmanager.service.LoginThrottleService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Cluster-wide login throttle: every node shares one sliding window per account in Redis,
+ * updated atomically by Lua scripts and expired by the key TTL.
+ * <p>
+ * If Redis cannot be reached the node falls back to {@link InMemoryLoginThrottle} and does not
+ * retry Redis until the back-off has elapsed, so a Redis outage never stalls the login path.
+ */
+@Service
+public class RedisLoginThrottleService implements LoginThrottleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisLoginThrottleService.class);
+    private static final String KEY_PREFIX = "login-throttle:";
+
+    private static final RedisScript<Long> RECORD_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/login-throttle-record.lua"), Long.class);
+    private static final RedisScript<Long> COUNT_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/login-throttle-count.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final InMemoryLoginThrottle fallback;
+    private final boolean redisEnabled;
+    private final int maxAttempts;
+    private final String windowMillis;
+    private final long retryBackoffMillis;
+
+    private volatile long redisRetryAt;
+
+    public RedisLoginThrottleService(StringRedisTemplate redisTemplate,
+                                     @Value("${app.security.login-throttle.store:redis}") String store,
+                                     @Value("${app.security.login-throttle.max-attempts:6}") int maxAttempts,
+                                     @Value("${app.security.login-throttle.window-seconds:900}") long windowSeconds,
+                                     @Value("${app.security.login-throttle.fallback-max-accounts:100000}") long fallbackMaxAccounts,
+                                     @Value("${app.security.login-throttle.redis-retry-seconds:30}") long retrySeconds) {
+        Duration window = Duration.ofSeconds(windowSeconds);
+        this.redisTemplate = redisTemplate;
+        this.fallback = new InMemoryLoginThrottle(maxAttempts, window, fallbackMaxAccounts);
+        this.redisEnabled = "redis".equalsIgnoreCase(store);
+        this.maxAttempts = maxAttempts;
+        this.windowMillis = Long.toString(window.toMillis());
+        this.retryBackoffMillis = Duration.ofSeconds(retrySeconds).toMillis();
+    }
+
+    @Override
+    public boolean isBlocked(String email) {
+        String account = normalize(email);
+        Long count = withRedis(key -> redisTemplate.execute(COUNT_SCRIPT, List.of(key), windowMillis), account);
+        return count != null ? count >= maxAttempts : fallback.isBlocked(account);
+    }
+
+    @Override
+    public void recordFailure(String email) {
+        String account = normalize(email);
+        Long count = withRedis(key -> redisTemplate.execute(RECORD_SCRIPT, List.of(key), windowMillis,
+                Integer.toString(maxAttempts), UUID.randomUUID().toString()), account);
+        if (count == null) {
+            fallback.recordFailure(account);
+        }
+    }
+
+    @Override
+    public void reset(String email) {
+        String account = normalize(email);
+        fallback.reset(account);
+        withRedis(key -> Boolean.TRUE.equals(redisTemplate.delete(key)) ? 1L : 0L, account);
+    }
+
+    // Returns null when Redis is disabled, backing off, or failed; callers then use the fallback.
+    private Long withRedis(Function<String, Long> operation, String account) {
+        if (!redisEnabled || System.currentTimeMillis() < redisRetryAt) {
+            return null;
+        }
+        try {
+            return operation.apply(KEY_PREFIX + account);
+        } catch (DataAccessException e) {
+            redisRetryAt = System.currentTimeMillis() + retryBackoffMillis;
+            logger.warn("Redis unavailable for login throttling, using in-memory fallback: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
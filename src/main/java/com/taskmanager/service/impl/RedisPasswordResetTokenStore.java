@@ -0,0 +1,55 @@
+package com.taskmanager.service.impl;
+
+import com.taskmanager.service.PasswordResetTokenStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps reset tokens in Redis under their own key, so a lookup is a single GET and expiry is left
+ * to the key TTL. A second key per user points at the current token so issuing a new one can
+ * drop the old one; both are written atomically by a Lua script.
+ */
+@Service
+@ConditionalOnProperty(name = "app.security.password-reset.store", havingValue = "redis")
+public class RedisPasswordResetTokenStore implements PasswordResetTokenStore {
+
+    private static final String TOKEN_PREFIX = "password-reset:token:";
+    private static final String USER_PREFIX = "password-reset:user:";
+
+    private static final RedisScript<Long> ISSUE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/password-reset-issue.lua"), Long.class);
+    private static final RedisScript<String> REDEEM_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/password-reset-redeem.lua"), String.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String ttlMillis;
+
+    public RedisPasswordResetTokenStore(StringRedisTemplate redisTemplate,
+                                        @Value("${app.security.password-reset.ttl-minutes:60}") long ttlMinutes) {
+        this.redisTemplate = redisTemplate;
+        this.ttlMillis = Long.toString(Duration.ofMinutes(ttlMinutes).toMillis());
+    }
+
+    @Override
+    public String issue(Long userId) {
+        String token = UUID.randomUUID().toString();
+        redisTemplate.execute(ISSUE_SCRIPT, List.of(USER_PREFIX + userId, TOKEN_PREFIX + token),
+                token, userId.toString(), ttlMillis, TOKEN_PREFIX);
+        return token;
+    }
+
+    @Override
+    public Optional<Long> redeem(String token) {
+        String userId = redisTemplate.execute(REDEEM_SCRIPT, List.of(TOKEN_PREFIX + token));
+        return Optional.ofNullable(userId).map(Long::valueOf);
+    }
+}
@@ -0,0 +1,97 @@
+package com.taskmanager.service.impl;
+
+import com.taskmanager.service.RefreshTokenStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps each token as a hash under its own key and each family as a key whose TTL slides with
+ * every rotation; deleting the family key revokes all of its tokens at once. A sorted set per user
+ * lists their families for {@link #revokeAll}, scored by when each expires, so the scripts drop
+ * revoked families at once and expired ones on the user's next issue or rotation. Issuing,
+ * rotating and revoking are atomic Lua scripts.
+ */
+@Service
+@ConditionalOnProperty(name = "app.security.refresh-token.store", havingValue = "redis")
+public class RedisRefreshTokenStore implements RefreshTokenStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisRefreshTokenStore.class);
+
+    private static final String TOKEN_PREFIX = "refresh-token:token:";
+    private static final String FAMILY_PREFIX = "refresh-token:family:";
+    private static final String USER_PREFIX = "refresh-token:user:";
+
+    private static final RedisScript<Long> ISSUE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/refresh-token-issue.lua"), Long.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ROTATE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/refresh-token-rotate.lua"), List.class);
+    private static final RedisScript<Long> REVOKE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/refresh-token-revoke.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String ttlMillis;
+
+    public RedisRefreshTokenStore(StringRedisTemplate redisTemplate,
+                                  @Value("${app.security.refresh-token.ttl-days:14}") long ttlDays) {
+        this.redisTemplate = redisTemplate;
+        this.ttlMillis = Long.toString(Duration.ofDays(ttlDays).toMillis());
+    }
+
+    @Override
+    public String issue(Long userId, String subject) {
+        String token = RefreshTokens.generate();
+        String family = UUID.randomUUID().toString();
+        redisTemplate.execute(ISSUE_SCRIPT,
+                List.of(TOKEN_PREFIX + RefreshTokens.hash(token), FAMILY_PREFIX + family, USER_PREFIX + userId),
+                userId.toString(), subject, family, ttlMillis, Long.toString(System.currentTimeMillis()));
+        return token;
+    }
+
+    @Override
+    public Optional<Rotation> rotate(String token) {
+        String next = RefreshTokens.generate();
+        List<?> result = redisTemplate.execute(ROTATE_SCRIPT,
+                List.of(TOKEN_PREFIX + RefreshTokens.hash(token), TOKEN_PREFIX + RefreshTokens.hash(next)),
+                FAMILY_PREFIX, USER_PREFIX, ttlMillis, Long.toString(System.currentTimeMillis()));
+        if (result == null || result.isEmpty()) {
+            return Optional.empty();
+        }
+        Long userId = Long.valueOf((String) result.get(1));
+        if ("reused".equals(result.get(0))) {
+            logger.warn("Refresh token reused for user {}; revoked its family", userId);
+            return Optional.empty();
+        }
+        return Optional.of(new Rotation(userId, (String) result.get(2), next));
+    }
+
+    @Override
+    public void revoke(String token) {
+        redisTemplate.execute(REVOKE_SCRIPT, List.of(TOKEN_PREFIX + RefreshTokens.hash(token)), FAMILY_PREFIX, USER_PREFIX);
+    }
+
+    @Override
+    public void revokeAll(Long userId) {
+        String userKey = USER_PREFIX + userId;
+        Set<String> families = redisTemplate.opsForZSet().range(userKey, 0, -1);
+        List<String> keys = new ArrayList<>();
+        keys.add(userKey);
+        if (families != null) {
+            families.forEach(family -> keys.add(FAMILY_PREFIX + family));
+        }
+        redisTemplate.delete(keys);
+    }
+}
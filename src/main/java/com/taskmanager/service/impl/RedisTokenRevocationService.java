@@ -0,0 +1,154 @@
+package com.taskmanager.service.impl;
+
+import com.taskmanager.security.jwt.TokenRevocationList;
+import com.taskmanager.service.TokenRevocationService;
+import com.taskmanager.service.UserDetailsCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Replicates revocations through Redis. Each one is applied locally, stored in a sorted set scored
+ * by when it stops mattering, and published on a channel every node listens to.
+ * <p>
+ * A node subscribes and loads both sets on startup and again on every resync, which also
+ * repairs anything missed while its subscription or Redis was down. Checks never touch Redis.
+ * <p>
+ * A subject-wide revocation follows a password or role change, so a node that learns of a newer
+ * one also drops the subject's cached user details; otherwise it would accept the old password
+ * until the cache entry expired.
+ */
+@Service
+@ConditionalOnProperty(name = "app.security.revocation.store", havingValue = "redis")
+public class RedisTokenRevocationService implements TokenRevocationService, MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisTokenRevocationService.class);
+
+    private static final String CHANNEL = "token-revocation";
+    private static final String TOKENS_KEY = "token-revocation:tokens";
+    private static final String WATERMARKS_KEY = "token-revocation:watermarks";
+    private static final String TOKEN_MESSAGE = "token";
+    private static final String WATERMARK_MESSAGE = "user";
+
+    private static final RedisScript<Long> PUBLISH_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/token-revocation-publish.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final TokenRevocationList revocationList;
+    private final UserDetailsCache userDetailsCache;
+    private final long tokenLifetimeMillis;
+    private RedisMessageListenerContainer listenerContainer;
+
+    public RedisTokenRevocationService(StringRedisTemplate redisTemplate, TokenRevocationList revocationList,
+                                       UserDetailsCache userDetailsCache,
+                                       @Value("${jwt.expiration}") long tokenLifetimeMillis) {
+        this.redisTemplate = redisTemplate;
+        this.revocationList = revocationList;
+        this.userDetailsCache = userDetailsCache;
+        this.tokenLifetimeMillis = tokenLifetimeMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisTemplate.getRequiredConnectionFactory());
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        listenerContainer.afterPropertiesSet();
+        resync();
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        listenerContainer.destroy();
+    }
+
+    @Override
+    public void revokeToken(String tokenId, long expiresAtMillis) {
+        revocationList.revokeToken(tokenId, expiresAtMillis);
+        publish(TOKENS_KEY, tokenId, expiresAtMillis, System.currentTimeMillis(),
+                TOKEN_MESSAGE + " " + expiresAtMillis + " " + tokenId);
+    }
+
+    @Override
+    public void revokeIssuedBefore(String subject, long epochSecond) {
+        revocationList.revokeIssuedBefore(subject, epochSecond);
+        publish(WATERMARKS_KEY, subject, epochSecond, (System.currentTimeMillis() - tokenLifetimeMillis) / 1000,
+                WATERMARK_MESSAGE + " " + epochSecond + " " + subject);
+    }
+
+    // This node is already covered; other nodes only learn about the revocation through Redis.
+    private void publish(String key, String member, long score, long pruneBelow, String message) {
+        try {
+            redisTemplate.execute(PUBLISH_SCRIPT, List.of(key), member, Long.toString(score),
+                    Long.toString(pruneBelow), CHANNEL, message);
+        } catch (DataAccessException e) {
+            logger.error("Could not replicate token revocation, other nodes will not see it", e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(" ", 3);
+        if (parts.length != 3) {
+            logger.warn("Ignoring malformed token revocation message");
+            return;
+        }
+        switch (parts[0]) {
+            case TOKEN_MESSAGE -> revocationList.revokeToken(parts[2], Long.parseLong(parts[1]));
+            case WATERMARK_MESSAGE -> applyWatermark(parts[2], Long.parseLong(parts[1]));
+            default -> logger.warn("Ignoring token revocation message of type {}", parts[0]);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.resync-interval-ms:60000}",
+            initialDelayString = "${app.security.revocation.resync-interval-ms:60000}")
+    public void resync() {
+        long now = System.currentTimeMillis();
+        try {
+            // Subscribing first means nothing published during the load is missed.
+            if (!listenerContainer.isRunning()) {
+                listenerContainer.start();
+            }
+            for (ZSetOperations.TypedTuple<String> token : range(TOKENS_KEY, now)) {
+                revocationList.revokeToken(token.getValue(), token.getScore().longValue());
+            }
+            for (ZSetOperations.TypedTuple<String> watermark : range(WATERMARKS_KEY, (now - tokenLifetimeMillis) / 1000)) {
+                applyWatermark(watermark.getValue(), watermark.getScore().longValue());
+            }
+        } catch (RuntimeException e) {
+            // A node still starts without Redis; it catches up on the next resync.
+            logger.warn("Could not load token revocations from Redis: {}", e.getMessage());
+        }
+    }
+
+    // The revoking node evicted its own entry already; this covers the others and missed messages.
+    private void applyWatermark(String subject, long epochSecond) {
+        if (revocationList.revokeIssuedBefore(subject, epochSecond)) {
+            userDetailsCache.evict(subject);
+        }
+    }
+
+    private Set<ZSetOperations.TypedTuple<String>> range(String key, long minScore) {
+        Set<ZSetOperations.TypedTuple<String>> entries =
+                redisTemplate.opsForZSet().rangeByScoreWithScores(key, minScore, Double.POSITIVE_INFINITY);
+        return entries != null ? entries : Set.of();
+    }
+}
@@ -0,0 +1,180 @@
+package com.taskmanager.stream;
+
+import com.taskmanager.event.RemoteTaskChangedEvent;
+import com.taskmanager.event.TaskChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Pushes committed task changes to the owner's SSE subscribers. An idle connection holds no thread: Tomcat
+ * parks the async request, and each subscriber's drain runs on its own virtual thread only while
+ * events are being written, so a client that stops reading never holds up the others.
+ * {@code SseEmitter.send} is {@code synchronized} and pins its thread, but Tomcat blocks in
+ * {@code Object.wait} while the socket is full, for which the JDK adds a carrier. A send blocked
+ * longer than the send timeout drops the subscriber; the client catches up through /tasks/changes
+ * when it reconnects.
+ * <p>
+ * With {@code app.tasks.replication=redis}, changes committed on other nodes arrive as
+ * {@link RemoteTaskChangedEvent}s, so a subscriber sees every change whichever node it is connected to;
+ * otherwise it only sees changes made through its own node.
+ */
+@Service
+public class TaskStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskStreamService.class);
+
+    private final Map<Long, Set<TaskStreamSubscriber>> subscribersByOwner = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService senders;
+    private final AtomicLong closedOverflowCount = new AtomicLong();
+    private final AtomicLong stalledCount = new AtomicLong();
+
+    private final long timeoutMs;
+    private final int bufferCapacity;
+    private final int maxSubscribers;
+    private final long heartbeatMs;
+    private final long sendTimeoutNanos;
+    private final long changesOverlapMs;
+
+    public TaskStreamService(@Value("${app.tasks.stream.timeout-ms:1800000}") long timeoutMs,
+                             @Value("${app.tasks.stream.buffer-capacity:256}") int bufferCapacity,
+                             @Value("${app.tasks.stream.max-subscribers:20000}") int maxSubscribers,
+                             @Value("${app.tasks.stream.heartbeat-ms:15000}") long heartbeatMs,
+                             @Value("${app.tasks.stream.send-timeout-ms:10000}") long sendTimeoutMs,
+                             @Value("${app.tasks.changes.overlap-ms:1000}") long changesOverlapMs) {
+        this.timeoutMs = timeoutMs;
+        this.bufferCapacity = bufferCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeatMs = heartbeatMs;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        this.changesOverlapMs = changesOverlapMs;
+        this.senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-stream-", 0).factory());
+    }
+
+    /**
+     * Registers a subscriber for the owner's task changes, or returns null when the node is at
+     * its subscriber limit.
+     */
+    public SseEmitter subscribe(Long ownerId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        try {
+            // Sent from the request thread so it is written, and the 200 committed, before the dispatch ends.
+            // A first write from a sender thread races the container and can fail the stream with an error page.
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException e) {
+            subscriberCount.decrementAndGet();
+            throw new UncheckedIOException(e);
+        }
+        TaskStreamSubscriber subscriber = new TaskStreamSubscriber(emitter, bufferCapacity, changesOverlapMs, senders, closed -> {
+            subscribersByOwner.computeIfPresent(ownerId, (owner, set) -> {
+                set.remove(closed);
+                return set.isEmpty() ? null : set;
+            });
+            subscriberCount.decrementAndGet();
+            closedOverflowCount.addAndGet(closed.overflowCount());
+        });
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscribersByOwner.compute(ownerId, (owner, set) -> {
+            Set<TaskStreamSubscriber> subscribers = set == null ? ConcurrentHashMap.newKeySet() : set;
+            subscribers.add(subscriber);
+            return subscribers;
+        });
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        Set<TaskStreamSubscriber> subscribers = subscribersByOwner.get(event.ownerId());
+        if (subscribers == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<TaskStreamSubscriber.Change> changes = new ArrayList<>(event.taskIds().size());
+        if (event.type() == TaskChangedEvent.Type.DELETED) {
+            event.taskIds().forEach(id -> changes.add(new TaskStreamSubscriber.Change(event.type(), id, null, now)));
+        } else {
+            event.tasks().forEach(task -> changes.add(new TaskStreamSubscriber.Change(event.type(), task.getId(), task, now)));
+        }
+        for (TaskStreamSubscriber subscriber : subscribers) {
+            subscriber.offer(changes);
+        }
+    }
+
+    @EventListener
+    public void onRemoteTaskChanged(RemoteTaskChangedEvent event) {
+        onTaskChanged(event.change());
+    }
+
+    // Keeps idle connections alive through proxies and notices clients that disappeared.
+    @Scheduled(fixedDelayString = "${app.tasks.stream.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        long idleSince = System.currentTimeMillis() - heartbeatMs;
+        allSubscribers().forEach(subscriber -> {
+            if (subscriber.lastSentMillis() <= idleSince) {
+                subscriber.heartbeat();
+            }
+        });
+    }
+
+    // The blocked thread stays until Tomcat's write timeout; the subscriber is let go right away.
+    @Scheduled(fixedDelayString = "${app.tasks.stream.send-timeout-check-ms:1000}")
+    public void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        allSubscribers().filter(subscriber -> subscriber.sendBlockedLongerThan(sendTimeoutNanos, now)).toList()
+                .forEach(subscriber -> {
+                    stalledCount.incrementAndGet();
+                    subscriber.close();
+                });
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    public long getOverflowCount() {
+        long open = allSubscribers().mapToLong(TaskStreamSubscriber::overflowCount).sum();
+        return closedOverflowCount.get() + open;
+    }
+
+    public long getStalledCount() {
+        return stalledCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        logger.info("Closing task stream with {} subscribers", subscriberCount.get());
+        allSubscribers().toList().forEach(subscriber -> subscriber.emitter().complete());
+        senders.shutdown();
+    }
+
+    private Stream<TaskStreamSubscriber> allSubscribers() {
+        return subscribersByOwner.values().stream().flatMap(Set::stream);
+    }
+}
@@ -0,0 +1,196 @@
+package com.taskmanager.stream;
+
+import com.taskmanager.event.TaskChangedEvent;
+import com.taskmanager.model.Task;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * One SSE connection. Changes are buffered per task id, so repeated changes to a task collapse
+ * into its latest state. When more than {@code capacity} tasks are pending, the buffer is dropped
+ * and a single {@code resync} event tells the client to catch up through /tasks/changes. Its id is
+ * the timestamp of the last change delivered, or of the subscription, less the same overlap the
+ * changes feed steps back by, so {@code since=<resync id>} covers every dropped change.
+ * At most one drain per connection runs at a time, so a slow client ties up one executor task
+ * and never blocks the publisher. A send that stays blocked is reported through
+ * {@link #sendBlockedLongerThan} so the service can drop the connection.
+ */
+class TaskStreamSubscriber {
+
+    private static final long NOT_SENDING = Long.MIN_VALUE;
+
+    record Change(TaskChangedEvent.Type type, Long taskId, Task task, long timestamp) {
+    }
+
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final long resyncOverlapMs;
+    private final Executor executor;
+    private final Consumer<TaskStreamSubscriber> onClose;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<Long, Change> pending = new LinkedHashMap<>();
+    private boolean overflowed;
+    private boolean heartbeatDue;
+    private long overflowCount;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile long lastSentMillis = System.currentTimeMillis();
+    private volatile long sendingSinceNanos = NOT_SENDING;
+    // Only written by drains, which never overlap.
+    private long lastDeliveredMillis = System.currentTimeMillis();
+
+    TaskStreamSubscriber(SseEmitter emitter, int capacity, long resyncOverlapMs, Executor executor,
+                         Consumer<TaskStreamSubscriber> onClose) {
+        this.emitter = emitter;
+        this.capacity = capacity;
+        this.resyncOverlapMs = resyncOverlapMs;
+        this.executor = executor;
+        this.onClose = onClose;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    long lastSentMillis() {
+        return lastSentMillis;
+    }
+
+    long overflowCount() {
+        lock.lock();
+        try {
+            return overflowCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean sendBlockedLongerThan(long timeoutNanos, long nowNanos) {
+        long since = sendingSinceNanos;
+        return since != NOT_SENDING && nowNanos - since > timeoutNanos;
+    }
+
+    void offer(List<Change> changes) {
+        lock.lock();
+        try {
+            if (!overflowed) {
+                for (Change change : changes) {
+                    pending.remove(change.taskId());
+                    pending.put(change.taskId(), change);
+                }
+                if (pending.size() > capacity) {
+                    pending = new LinkedHashMap<>();
+                    overflowed = true;
+                    overflowCount++;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        scheduleDrain();
+    }
+
+    void heartbeat() {
+        lock.lock();
+        try {
+            heartbeatDue = true;
+        } finally {
+            lock.unlock();
+        }
+        scheduleDrain();
+    }
+
+    void close() {
+        if (closed.compareAndSet(false, true)) {
+            onClose.accept(this);
+        }
+    }
+
+    private void scheduleDrain() {
+        if (!closed.get() && draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            if (closed.get()) {
+                // Dropped while a send was blocked: end the response once that send has returned.
+                draining.set(false);
+                emitter.complete();
+                return;
+            }
+            List<Change> changes;
+            boolean resync;
+            boolean heartbeat;
+            lock.lock();
+            try {
+                changes = new ArrayList<>(pending.values());
+                pending.clear();
+                resync = overflowed;
+                overflowed = false;
+                heartbeat = heartbeatDue && changes.isEmpty() && !resync;
+                heartbeatDue = false;
+                if (changes.isEmpty() && !resync && !heartbeat) {
+                    draining.set(false);
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            try {
+                send(changes, resync, heartbeat);
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the emitter already completed.
+                close();
+                draining.set(false);
+                emitter.completeWithError(e);
+                return;
+            }
+        }
+    }
+
+    private void send(List<Change> changes, boolean resync, boolean heartbeat) throws IOException {
+        if (resync) {
+            send(SseEmitter.event().name("resync").id(String.valueOf(lastDeliveredMillis - resyncOverlapMs)).data(""));
+        }
+        for (Change change : changes) {
+            SseEmitter.SseEventBuilder event = SseEmitter.event()
+                    .name(change.type().name().toLowerCase())
+                    .id(String.valueOf(change.timestamp()));
+            if (change.type() == TaskChangedEvent.Type.DELETED) {
+                event.data(Map.of("id", change.taskId()), MediaType.APPLICATION_JSON);
+            } else {
+                event.data(change.task(), MediaType.APPLICATION_JSON);
+            }
+            send(event);
+            lastDeliveredMillis = Math.max(lastDeliveredMillis, change.timestamp());
+        }
+        if (heartbeat) {
+            send(SseEmitter.event().comment("heartbeat"));
+        }
+        lastSentMillis = System.currentTimeMillis();
+    }
+
+    // Timed per event, so a client that reads slowly but steadily is never taken for a stalled one.
+    private void send(SseEmitter.SseEventBuilder event) throws IOException {
+        sendingSinceNanos = System.nanoTime();
+        try {
+            emitter.send(event);
+        } finally {
+            sendingSinceNanos = NOT_SENDING;
+        }
+    }
+}
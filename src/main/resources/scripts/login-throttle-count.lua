@@ -0,0 +1,6 @@
+-- Returns the number of failed logins inside the sliding window.
+-- KEYS[1] = window key, ARGV[1] = window in ms
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - tonumber(ARGV[1]))
+return redis.call('ZCARD', KEYS[1])
@@ -0,0 +1,11 @@
+-- Records one failed login in a sorted-set sliding window and returns the failures still in it.
+-- KEYS[1] = window key, ARGV[1] = window in ms, ARGV[2] = max attempts, ARGV[3] = unique member suffix
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local window = tonumber(ARGV[1])
+redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window)
+redis.call('ZADD', KEYS[1], now, now .. ':' .. ARGV[3])
+-- Only the newest max attempts matter, so the set never grows past that.
+redis.call('ZREMRANGEBYRANK', KEYS[1], 0, -(tonumber(ARGV[2]) + 1))
+redis.call('PEXPIRE', KEYS[1], window)
+return redis.call('ZCARD', KEYS[1])
@@ -0,0 +1,10 @@
+-- Stores a new reset token and drops the user's previous one.
+-- KEYS[1] = user key, KEYS[2] = token key, ARGV[1] = token, ARGV[2] = user id, ARGV[3] = ttl in ms,
+-- ARGV[4] = token key prefix
+local previous = redis.call('GET', KEYS[1])
+if previous then
+    redis.call('DEL', ARGV[4] .. previous)
+end
+redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[3])
+redis.call('SET', KEYS[2], ARGV[2], 'PX', ARGV[3])
+return 1
@@ -0,0 +1,7 @@
+-- Returns the token's user id and deletes the token, so it can be redeemed only once.
+-- KEYS[1] = token key
+local userId = redis.call('GET', KEYS[1])
+if userId then
+    redis.call('DEL', KEYS[1])
+end
+return userId
@@ -0,0 +1,11 @@
+-- Starts a token family with its first token and drops families that expired from the user's index.
+-- KEYS[1] = token key, KEYS[2] = family key, KEYS[3] = user key,
+-- ARGV[1] = user id, ARGV[2] = subject, ARGV[3] = family id, ARGV[4] = ttl in ms, ARGV[5] = now in ms
+local expiresAt = tonumber(ARGV[5]) + tonumber(ARGV[4])
+redis.call('HSET', KEYS[1], 'user', ARGV[1], 'subject', ARGV[2], 'family', ARGV[3], 'used', '0')
+redis.call('PEXPIRE', KEYS[1], ARGV[4])
+redis.call('SET', KEYS[2], ARGV[1], 'PX', ARGV[4])
+redis.call('ZREMRANGEBYSCORE', KEYS[3], '-inf', ARGV[5])
+redis.call('ZADD', KEYS[3], expiresAt, ARGV[3])
+redis.call('PEXPIRE', KEYS[3], ARGV[4])
+return 1
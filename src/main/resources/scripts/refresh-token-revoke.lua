@@ -0,0 +1,8 @@
+-- Revokes the family of the presented token and drops it from the user's index.
+-- KEYS[1] = token key, ARGV[1] = family key prefix, ARGV[2] = user key prefix
+local token = redis.call('HMGET', KEYS[1], 'user', 'family')
+if not token[1] then
+    return 0
+end
+redis.call('ZREM', ARGV[2] .. token[1], token[2])
+return redis.call('DEL', ARGV[1] .. token[2])
@@ -0,0 +1,30 @@
+-- Marks the presented token used and stores its successor in the same family.
+-- Returns an empty list if the token is unknown or its family was revoked, {'reused', user} if the token was
+-- rotated before (the family is revoked), or {'rotated', user, subject}.
+-- KEYS[1] = token key, KEYS[2] = new token key, ARGV[1] = family key prefix, ARGV[2] = user key prefix,
+-- ARGV[3] = ttl in ms, ARGV[4] = now in ms
+local token = redis.call('HMGET', KEYS[1], 'user', 'subject', 'family', 'used')
+if not token[1] then
+    return {}
+end
+local familyKey = ARGV[1] .. token[3]
+local userKey = ARGV[2] .. token[1]
+if redis.call('EXISTS', familyKey) == 0 then
+    redis.call('ZREM', userKey, token[3])
+    return {}
+end
+if token[4] == '1' then
+    redis.call('DEL', familyKey)
+    redis.call('ZREM', userKey, token[3])
+    return {'reused', token[1]}
+end
+redis.call('HSET', KEYS[1], 'used', '1')
+-- Used tokens live as long as the family so a late replay is still recognised.
+redis.call('PEXPIRE', KEYS[1], ARGV[3])
+redis.call('HSET', KEYS[2], 'user', token[1], 'subject', token[2], 'family', token[3], 'used', '0')
+redis.call('PEXPIRE', KEYS[2], ARGV[3])
+redis.call('PEXPIRE', familyKey, ARGV[3])
+redis.call('ZREMRANGEBYSCORE', userKey, '-inf', ARGV[4])
+redis.call('ZADD', userKey, tonumber(ARGV[4]) + tonumber(ARGV[3]), token[3])
+redis.call('PEXPIRE', userKey, ARGV[3])
+return {'rotated', token[1], token[2]}
@@ -0,0 +1,9 @@
+-- Records a revocation in its sorted set and announces it to every node.
+-- KEYS[1] = sorted set, ARGV[1] = member, ARGV[2] = score, ARGV[3] = drop members scored below this,
+-- ARGV[4] = channel, ARGV[5] = message
+redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', '(' .. ARGV[3])
+local current = redis.call('ZSCORE', KEYS[1], ARGV[1])
+if not current or tonumber(current) < tonumber(ARGV[2]) then
+    redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+end
+return redis.call('PUBLISH', ARGV[4], ARGV[5])
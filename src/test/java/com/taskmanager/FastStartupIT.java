@@ -0,0 +1,114 @@
+package com.taskmanager;
+
+import org.h2.Driver;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Launches the jar that {@code mvn -Pfast-startup verify} extracted into target/fast-startup twice,
+ * once as built for production, with AOT and the AppCDS archive, and once plainly, and times each
+ * from launch to a successful registration. {@code -Xshare:on} makes the JVM refuse an archive it
+ * cannot map, and AOT mode refuses to start without the generated initializers, so a broken
+ * artifact fails here rather than silently starting slowly.
+ * <p>
+ * AOT fixes which health indicators exist at build time, and without Redis or SMTP in the build
+ * health reports DOWN, so the first request is a registration: it needs the filter chain, password
+ * hashing and the database.
+ */
+class FastStartupIT {
+
+    private static final Path ARTIFACT_DIRECTORY = Path.of("target", "fast-startup");
+    private static final Duration MAX_TIME_TO_FIRST_REQUEST =
+            Duration.ofMillis(Long.getLong("startup.fast.max-time-to-first-request-ms", 25_000));
+
+    @Test
+    void aotAndTheCdsArchiveReachTheFirstRequestSoonerThanAPlainLaunch() throws Exception {
+        Duration fast = timeToFirstRequest("fast", "-Xshare:on", "-XX:SharedArchiveFile=application.jsa",
+                "-Dspring.aot.enabled=true");
+        Duration plain = timeToFirstRequest("plain");
+
+        assertTrue(fast.compareTo(MAX_TIME_TO_FIRST_REQUEST) < 0, "first request after " + fast.toMillis() + " ms");
+        assertTrue(fast.compareTo(plain) < 0,
+                "fast startup took " + fast.toMillis() + " ms, a plain launch " + plain.toMillis() + " ms");
+    }
+
+    private static Duration timeToFirstRequest(String name, String... jvmOptions) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(List.of(jvmOptions));
+        // H2 goes after the jar and its manifest class path, which keeps the archive's class path a prefix.
+        command.addAll(List.of("-cp", applicationJar() + File.pathSeparator + h2Jar(),
+                TaskmanagementApplication.class.getName(),
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false"));
+        Path log = ARTIFACT_DIRECTORY.resolve(name + "-launch.log");
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(ARTIFACT_DIRECTORY.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpRequest register = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auth/register"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"username\":\"startup\",\"email\":\"startup@example.com\",\"password\":\"startup-password\"}"))
+                    .build();
+            while (true) {
+                assertTrue(process.isAlive(), name + " launch exited, see " + log);
+                assertTrue(System.nanoTime() - start < Duration.ofMinutes(2).toNanos(), name + " launch never answered, see " + log);
+                try {
+                    HttpResponse<String> response = client.send(register, HttpResponse.BodyHandlers.ofString());
+                    assertEquals(201, response.statusCode(), response.body());
+                    return Duration.ofNanos(System.nanoTime() - start);
+                } catch (ConnectException e) {
+                    Thread.sleep(100);
+                }
+            }
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static Path applicationJar() throws IOException {
+        try (Stream<Path> files = Files.list(ARTIFACT_DIRECTORY)) {
+            return files.filter(file -> file.toString().endsWith(".jar")).findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No jar in " + ARTIFACT_DIRECTORY)).getFileName();
+        }
+    }
+
+    private static Path h2Jar() throws URISyntaxException {
+        return Path.of(Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.taskmanager;
+
+import com.taskmanager.service.impl.EmailServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Time from launching the application against H2 to its first successful request. The bound is
+ * about one and a half times the 23 s measured on a single-CPU machine, so it catches a startup
+ * regression of that order; {@code startup.max-time-to-first-request-ms} overrides it. The
+ * production AOT and AppCDS artifact is checked by {@link FastStartupIT}.
+ */
+class StartupTimeTest {
+
+    private static final Duration MAX_TIME_TO_FIRST_REQUEST =
+            Duration.ofMillis(Long.getLong("startup.max-time-to-first-request-ms", 35_000));
+
+    @Test
+    void firstRequestSucceedsSoonAfterLaunch() throws Exception {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskmanagementApplication.class)
+                // Arguments, unlike default properties, override the shared test database settings.
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:startup-time;DB_CLOSE_DELAY=-1",
+                        "--spring.jmx.enabled=false",
+                        // Neither runs in tests; health then reflects the application and its database.
+                        "--management.health.redis.enabled=false",
+                        "--management.health.mail.enabled=false")) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            assertEquals(200, response.statusCode(), response.body());
+            assertTrue(elapsed.compareTo(MAX_TIME_TO_FIRST_REQUEST) < 0,
+                    "first request after " + elapsed.toMillis() + " ms");
+            // Mail and springdoc wait for their first use.
+            assertFalse(context.getBeanFactory().containsSingleton("emailServiceImpl"));
+            assertTrue(context.getBeanFactory().getBeanNamesForType(EmailServiceImpl.class, true, false).length > 0);
+            for (String name : context.getBeanFactory().getSingletonNames()) {
+                Object bean = context.getBeanFactory().getSingleton(name);
+                assertFalse(bean != null && bean.getClass().getName().startsWith("org.springdoc.webmvc.api"), name);
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.taskmanager.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.taskmanager.model.Task;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.security.jwt.JwtUtil;
+import com.taskmanager.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.User;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:content-negotiation;DB_CLOSE_DELAY=-1",
+        "server.compression.enabled=true",
+        "server.compression.mime-types=application/json,application/x-jackson-smile,application/cbor",
+        "server.compression.min-response-size=2KB"
+})
+class ContentNegotiationTest {
+
+    private static final int TASKS = 200;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM tasks");
+        Long ownerId = userRepository.findByEmail("test@example.com").orElseThrow().getId();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            tasks.add(new Task(null, "Task " + i, "Description of task " + i, i % 3 == 0));
+        }
+        taskService.createTasks(ownerId, tasks);
+        token = jwtUtil.generateToken(new User("test@example.com", "n/a", List.of()));
+    }
+
+    @Test
+    void jsonRemainsTheDefaultAndIsGzippedWhenAccepted() throws Exception {
+        HttpResponse<byte[]> plain = send(request("/tasks").GET().build());
+        assertEquals(200, plain.statusCode());
+        assertTrue(plain.headers().firstValue("Content-Type").orElseThrow().startsWith("application/json"));
+        assertTrue(plain.headers().firstValue("Content-Encoding").isEmpty());
+
+        HttpResponse<byte[]> gzipped = send(request("/tasks").header("Accept-Encoding", "gzip").GET().build());
+        assertEquals("gzip", gzipped.headers().firstValue("Content-Encoding").orElseThrow());
+        assertTrue(gzipped.body().length < plain.body().length / 2);
+        byte[] unzipped = new GZIPInputStream(new ByteArrayInputStream(gzipped.body())).readAllBytes();
+        assertEquals(TASKS, objectMapper.readValue(unzipped, new TypeReference<List<Task>>() { }).size());
+    }
+
+    @Test
+    void smileIsServedWhenAccepted() throws Exception {
+        HttpResponse<byte[]> response = send(request("/tasks").header("Accept", "application/x-jackson-smile").GET().build());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("application/x-jackson-smile", response.headers().firstValue("Content-Type").orElseThrow());
+        List<Task> tasks = new ObjectMapper(new SmileFactory()).findAndRegisterModules().readValue(response.body(), new TypeReference<>() { });
+        assertEquals(TASKS, tasks.size());
+        assertEquals("Task 0", tasks.get(0).getTitle());
+    }
+
+    @Test
+    void cborIsAcceptedAsARequestBodyAndReturned() throws Exception {
+        ObjectMapper cbor = new ObjectMapper(new CBORFactory()).findAndRegisterModules();
+        byte[] body = cbor.writeValueAsBytes(new Task(null, "Binary", "Sent as CBOR", true));
+
+        HttpResponse<byte[]> response = send(request("/tasks")
+                .header("Content-Type", "application/cbor")
+                .header("Accept", "application/cbor")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build());
+
+        assertEquals(200, response.statusCode());
+        Task created = cbor.readValue(response.body(), Task.class);
+        assertEquals("Binary", created.getTitle());
+        assertTrue(created.isCompleted());
+    }
+
+    @Test
+    void eachFormatHasItsOwnETagAndResponsesVaryByAccept() throws Exception {
+        Long id = taskService.getAllTasks(userRepository.findByEmail("test@example.com").orElseThrow().getId()).get(0).getId();
+
+        HttpResponse<byte[]> json = send(request("/tasks/" + id).GET().build());
+        HttpResponse<byte[]> smile = send(request("/tasks/" + id).header("Accept", "application/x-jackson-smile").GET().build());
+        String jsonTag = json.headers().firstValue("ETag").orElseThrow();
+        String smileTag = smile.headers().firstValue("ETag").orElseThrow();
+
+        assertNotEquals(jsonTag, smileTag);
+        assertFalse(smileTag.startsWith("W/"));
+        assertTrue(json.headers().allValues("Vary").stream().anyMatch(vary -> vary.contains("Accept")));
+        assertTrue(smile.headers().allValues("Vary").stream().anyMatch(vary -> vary.contains("Accept")));
+        // A JSON validator does not revalidate the Smile representation, and vice versa.
+        assertEquals(200, send(request("/tasks/" + id).header("Accept", "application/x-jackson-smile")
+                .header("If-None-Match", jsonTag).GET().build()).statusCode());
+        assertEquals(304, send(request("/tasks/" + id).header("Accept", "application/x-jackson-smile")
+                .header("If-None-Match", smileTag).GET().build()).statusCode());
+        assertNotEquals(send(request("/tasks").GET().build()).headers().firstValue("ETag"),
+                send(request("/tasks").header("Accept", "application/cbor").GET().build()).headers().firstValue("ETag"));
+
+        // Either tag still names the version for If-Match.
+        HttpResponse<byte[]> patched = send(request("/tasks/" + id)
+                .header("Content-Type", "application/json")
+                .header("If-Match", smileTag)
+                .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"title\":\"Patched\"}"))
+                .build());
+        assertEquals(200, patched.statusCode());
+    }
+
+    @Test
+    void blackbirdIsRegisteredOnTheApplicationMapper() {
+        assertTrue(objectMapper.getRegisteredModuleIds().contains(new BlackbirdModule().getTypeId()));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).header("Authorization", "Bearer " + token);
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
@@ -0,0 +1,133 @@
+package com.taskmanager.config;
+
+import com.taskmanager.datasource.ReadYourWrites;
+import com.taskmanager.datasource.ReplicaPoolDataSource;
+import com.taskmanager.model.Task;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.service.TaskService;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-primary;DB_CLOSE_DELAY=-1",
+        "spring.jpa.open-in-view=false",
+        "app.datasource.replicas.enabled=true",
+        "app.datasource.replicas.urls=" + ReadReplicaConfigTest.REPLICA_A + "," + ReadReplicaConfigTest.REPLICA_B
+})
+class ReadReplicaConfigTest {
+
+    static final String REPLICA_A = "jdbc:h2:mem:replica-a;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_B = "jdbc:h2:mem:replica-b;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = userRepository.findByEmail("test@example.com").orElseThrow().getId();
+        jdbcTemplate.update("DELETE FROM tasks");
+        // Stand-in for replication: copy the primary into both replicas, then mark each copy.
+        List<String> script = jdbcTemplate.queryForList("SCRIPT", String.class);
+        for (String url : List.of(REPLICA_A, REPLICA_B)) {
+            JdbcTemplate replica = new JdbcTemplate(h2(url));
+            replica.execute("DROP ALL OBJECTS");
+            script.forEach(replica::execute);
+            replica.update("INSERT INTO tasks (id, title, description, completed, owner_id, version, updated_at) "
+                    + "VALUES (1000000, ?, '', FALSE, ?, 0, CURRENT_TIMESTAMP)", url, ownerId);
+        }
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsAlternateBetweenTheReplicas() {
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            seen.add(titles().get(0));
+        }
+        assertEquals(Set.of(REPLICA_A, REPLICA_B), seen);
+    }
+
+    @Test
+    void writesGoToThePrimaryAndTheWriterReadsItsOwnWrites() {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("test@example.com", null, List.of()));
+
+        taskService.createTask(ownerId, new Task(null, "written", "", false));
+
+        assertEquals(List.of("written"), titles());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks", Integer.class));
+        assertEquals(0, new JdbcTemplate(h2(REPLICA_A)).queryForObject(
+                "SELECT COUNT(*) FROM tasks WHERE title = 'written'", Integer.class));
+
+        // Someone who did not write still reads from a replica.
+        SecurityContextHolder.clearContext();
+        assertNotEquals(List.of("written"), titles());
+    }
+
+    @Test
+    void unavailableReplicasAreSkippedAndThePrimaryIsTheLastResort() throws SQLException {
+        DataSource primary = h2("jdbc:h2:mem:replica-primary;DB_CLOSE_DELAY=-1");
+        DataSource missing = h2("jdbc:h2:mem:replica-missing;IFEXISTS=TRUE");
+        ReadYourWrites readYourWrites = new ReadYourWrites(5000, 100);
+
+        ReplicaPoolDataSource pool = new ReplicaPoolDataSource(primary, List.of(
+                new ReplicaPoolDataSource.Replica("missing", missing),
+                new ReplicaPoolDataSource.Replica("b", h2(REPLICA_B))), readYourWrites, 30_000);
+        for (int i = 0; i < 3; i++) {
+            assertEquals("jdbc:h2:mem:replica-b", url(pool));
+        }
+
+        ReplicaPoolDataSource allDown = new ReplicaPoolDataSource(primary,
+                List.of(new ReplicaPoolDataSource.Replica("missing", missing)), readYourWrites, 30_000);
+        assertEquals("jdbc:h2:mem:replica-primary", url(allDown));
+    }
+
+    private List<String> titles() {
+        List<String> titles = new ArrayList<>();
+        taskService.streamTasks(ownerId, task -> titles.add(task.getTitle()));
+        return titles;
+    }
+
+    private static String url(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+
+    private static DataSource h2(String url) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        dataSource.setUser("sa");
+        dataSource.setPassword("password");
+        return dataSource;
+    }
+}
@@ -0,0 +1,87 @@
+package com.taskmanager.config;
+
+import com.taskmanager.entity.Role;
+import com.taskmanager.entity.User;
+import com.taskmanager.model.Task;
+import com.taskmanager.repository.RoleRepository;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.service.TaskService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private Long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = userRepository.findByEmail("test@example.com").orElseThrow().getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void repeatedRoleLookupsIssueNoSql() {
+        Role role = roleRepository.findByName("CACHE_TEST").orElseGet(() -> roleRepository.save(new Role(null, "CACHE_TEST")));
+        roleRepository.findByName("CACHE_TEST");
+
+        statistics.clear();
+        assertEquals(role.getId(), roleRepository.findByName("CACHE_TEST").orElseThrow().getId());
+        assertEquals("CACHE_TEST", roleRepository.findById(role.getId()).orElseThrow().getName());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    // Another node's write is simulated with plain JDBC, which no local cache hears about.
+    @Test
+    void tasksWrittenElsewhereAreSeenOnTheNextRead() {
+        Task task = taskService.createTask(ownerId, new Task(null, "Before", "d", false));
+        taskService.getTaskById(ownerId, task.getId());
+
+        jdbcTemplate.update("UPDATE tasks SET title = 'After', completed = TRUE, version = version + 1 WHERE id = ?", task.getId());
+
+        Task reloaded = taskService.getTaskById(ownerId, task.getId()).orElseThrow();
+        assertEquals("After", reloaded.getTitle());
+        assertEquals(task.getVersion() + 1, reloaded.getVersion());
+        assertFalse(entityManagerFactory.getCache().contains(Task.class, task.getId()));
+    }
+
+    @Test
+    void usersWrittenElsewhereAreSeenOnTheNextLookup() {
+        User user = userRepository.save(new User(null, "elsewhere", "old-hash", "elsewhere@example.com", Set.of()));
+        userRepository.findByEmail("elsewhere@example.com");
+
+        jdbcTemplate.update("UPDATE users SET password = 'new-hash' WHERE id = ?", user.getId());
+
+        assertEquals("new-hash", userRepository.findByEmail("elsewhere@example.com").orElseThrow().getPassword());
+        assertFalse(entityManagerFactory.getCache().contains(User.class, user.getId()));
+    }
+}
@@ -0,0 +1,114 @@
+package com.taskmanager.config;
+
+import com.taskmanager.TaskmanagementApplication;
+import com.taskmanager.security.jwt.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Starts the application twice, once on a small platform thread pool and once in virtual-thread
+ * mode, and sends authenticated {@code GET /tasks} requests through the real filter chain,
+ * user lookup, controller and repositories. Every JDBC connection takes a while to obtain,
+ * standing in for Oracle latency, and the test counts how many requests wait on the database at
+ * once. A pinned carrier anywhere on that path would hold the virtual run to the CPU count.
+ */
+class VirtualThreadCapacityTest {
+
+    private static final int PLATFORM_THREADS = 8;
+    private static final int CONCURRENT_REQUESTS = 64;
+    private static final long CONNECTION_LATENCY_MILLIS = 200;
+
+    @Test
+    void virtualThreadsServeMoreConcurrentRequestsThanThePoolCeiling() throws Exception {
+        int platformPeak = measurePeakConcurrency(false);
+        int virtualPeak = measurePeakConcurrency(true);
+
+        assertTrue(platformPeak <= PLATFORM_THREADS, "platform pool peak " + platformPeak);
+        assertTrue(virtualPeak > 2 * PLATFORM_THREADS, "virtual thread peak " + virtualPeak);
+    }
+
+    private int measurePeakConcurrency(boolean virtualThreads) throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        BeanPostProcessor slowConnections = new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                return new DelegatingDataSource(dataSource) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                        try {
+                            Thread.sleep(CONNECTION_LATENCY_MILLIS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }
+                        return super.getConnection();
+                    }
+                };
+            }
+        };
+
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskmanagementApplication.class)
+                .initializers(ctx -> ((GenericApplicationContext) ctx)
+                        .registerBean("slowConnections", BeanPostProcessor.class, () -> slowConnections))
+                // Arguments, unlike default properties, override the shared test database settings.
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:capacity-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--server.tomcat.threads.max=" + PLATFORM_THREADS,
+                        "--server.tomcat.threads.min-spare=1")) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            String token = context.getBean(JwtUtil.class).generateToken("test@example.com");
+            peak.set(0);
+            fireConcurrently(baseUrl, token);
+        }
+        return peak.get();
+    }
+
+    private static void fireConcurrently(String baseUrl, String token) throws Exception {
+        ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor();
+        try (HttpClient client = HttpClient.newBuilder().executor(clientThreads).connectTimeout(Duration.ofSeconds(10)).build()) {
+            List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/tasks"))
+                        .header("Authorization", "Bearer " + token)
+                        .GET()
+                        .build();
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+            }
+            for (CompletableFuture<HttpResponse<Void>> response : responses) {
+                assertEquals(200, response.get().statusCode());
+            }
+        } finally {
+            clientThreads.shutdown();
+        }
+    }
+}
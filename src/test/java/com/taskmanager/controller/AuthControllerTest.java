@@ -0,0 +1,103 @@
+package com.taskmanager.controller;
+
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.security.PasswordHashingRejectedException;
+import com.taskmanager.service.PasswordResetTokenStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Own database: the reset changes the seeded user's password.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:auth-controller;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class AuthControllerTest {
+
+    private static final AtomicBoolean HASHING_SATURATED = new AtomicBoolean();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordResetTokenStore passwordResetTokenStore;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void releaseHashing() {
+        HASHING_SATURATED.set(false);
+    }
+
+    @Test
+    void resetRejectedByABusyHashingExecutorKeepsTheTokenForTheRetry() throws Exception {
+        Long userId = userRepository.findByEmail("test@example.com").orElseThrow().getId();
+        String token = passwordResetTokenStore.issue(userId);
+        String body = "{\"token\":\"" + token + "\",\"password\":\"new-password\"}";
+
+        HASHING_SATURATED.set(true);
+        mockMvc.perform(post("/auth/reset-password").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        HASHING_SATURATED.set(false);
+        mockMvc.perform(post("/auth/reset-password").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+        assertTrue(passwordEncoder.matches("new-password",
+                userRepository.findByEmail("test@example.com").orElseThrow().getPassword()));
+    }
+
+    @TestConfiguration
+    static class SaturatedHashing {
+
+        // Stands in for a full hashing queue while the flag is set.
+        @Bean
+        static BeanPostProcessor saturatedPasswordEncoder() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof PasswordEncoder encoder)) {
+                        return bean;
+                    }
+                    return new PasswordEncoder() {
+                        @Override
+                        public String encode(CharSequence rawPassword) {
+                            if (HASHING_SATURATED.get()) {
+                                throw new PasswordHashingRejectedException("Password hashing queue is full");
+                            }
+                            return encoder.encode(rawPassword);
+                        }
+
+                        @Override
+                        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                            return encoder.matches(rawPassword, encodedPassword);
+                        }
+
+                        @Override
+                        public boolean upgradeEncoding(String encodedPassword) {
+                            return encoder.upgradeEncoding(encodedPassword);
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
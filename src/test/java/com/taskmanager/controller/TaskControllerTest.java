@@ -0,0 +1,303 @@
+package com.taskmanager.controller;
+
+import com.taskmanager.entity.User;
+import com.taskmanager.model.Task;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.search.TaskSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithUserDetails("test@example.com")
+class TaskControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+
+    private Long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository.deleteAll();
+        ownerId = userRepository.findByEmail("test@example.com").orElseThrow().getId();
+        for (int i = 1; i <= 5; i++) {
+            taskRepository.save(ownedTask(ownerId, "Task " + i, "Description " + i));
+        }
+    }
+
+    @Test
+    void getAllTasksStillReturnsJsonArray() throws Exception {
+        mockMvc.perform(get("/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(5));
+    }
+
+    @Test
+    void pagesFollowTheCursorUntilExhausted() throws Exception {
+        MvcResult first = mockMvc.perform(get("/tasks/page").param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks.length()").value(3))
+                .andExpect(jsonPath("$.nextCursor").isNumber())
+                .andReturn();
+        String cursor = com.jayway.jsonpath.JsonPath.read(first.getResponse().getContentAsString(), "$.nextCursor").toString();
+
+        mockMvc.perform(get("/tasks/page").param("size", "3").param("after", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks.length()").value(2))
+                .andExpect(jsonPath("$.tasks[0].title").value("Task 4"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void ndjsonStreamsOneTaskPerLine() throws Exception {
+        MvcResult result = mockMvc.perform(get("/tasks").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(5, body.lines().count());
+    }
+
+    @Test
+    void batchEndpointsApplyAllChanges() throws Exception {
+        mockMvc.perform(post("/tasks/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"title\":\"A\",\"description\":\"a\"},{\"title\":\"B\",\"description\":\"b\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").isNumber());
+        assertEquals(7, taskRepository.count());
+
+        Task first = taskRepository.findAll().get(0);
+        mockMvc.perform(put("/tasks/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\":" + first.getId() + ",\"title\":\"Renamed\",\"description\":\"d\",\"completed\":true}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Renamed"));
+        assertEquals("Renamed", taskRepository.findById(first.getId()).orElseThrow().getTitle());
+
+        mockMvc.perform(delete("/tasks/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + first.getId() + "]"))
+                .andExpect(status().isOk());
+        assertEquals(6, taskRepository.count());
+    }
+
+    @Test
+    void batchUpdateNamingAMissingTaskIsNotFoundAndChangesNothing() throws Exception {
+        Task first = taskRepository.findAll().get(0);
+        mockMvc.perform(put("/tasks/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\":" + first.getId() + ",\"title\":\"Renamed\",\"description\":\"d\"},"
+                                + "{\"id\":999999,\"title\":\"Missing\",\"description\":\"d\"}]"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Task not found: 999999"));
+        assertEquals(first.getTitle(), taskRepository.findById(first.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void searchReturnsTasksIndexedFromWrites() throws Exception {
+        mockMvc.perform(post("/tasks/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"title\":\"Renew passport\",\"description\":\"Before the trip\"},"
+                                + "{\"title\":\"Book flights\",\"description\":\"Check passport expiry\"}]"))
+                .andExpect(status().isOk());
+        taskSearchIndex.awaitSearchable();
+
+        mockMvc.perform(get("/tasks/search").param("q", "passp*"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].title").value("Renew passport"));
+
+        mockMvc.perform(get("/tasks/search").param("q", "passport trip"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void taskETagAnswers304UntilTheTaskChanges() throws Exception {
+        Task task = taskRepository.findAll().get(0);
+        String eTag = mockMvc.perform(get("/tasks/{id}", task.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/tasks/{id}", task.getId()).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(put("/tasks/{id}", task.getId()).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Changed\",\"description\":\"d\",\"completed\":true}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/tasks/{id}", task.getId()).header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Changed"))
+                .andExpect(header().string("ETag", org.hamcrest.Matchers.not(eTag)));
+    }
+
+    @Test
+    void listETagAnswers304UntilAnyTaskChanges() throws Exception {
+        String eTag = mockMvc.perform(get("/tasks"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/tasks").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        Task task = taskRepository.findAll().get(0);
+        mockMvc.perform(delete("/tasks/{id}", task.getId())).andExpect(status().isOk());
+
+        String afterDelete = mockMvc.perform(get("/tasks").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(eTag, afterDelete);
+    }
+
+    @Test
+    void changesReturnOnlyRowsModifiedOrDeletedAfterTheWatermark() throws Exception {
+        List<Task> tasks = taskRepository.findAll();
+        Thread.sleep(5);
+        long since = System.currentTimeMillis();
+        Thread.sleep(5);
+
+        mockMvc.perform(put("/tasks/{id}", tasks.get(0).getId()).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Edited\",\"description\":\"d\",\"completed\":false}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/tasks/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + tasks.get(1).getId() + ", 999999]"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/tasks/changes").param("since", String.valueOf(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks.length()").value(1))
+                .andExpect(jsonPath("$.tasks[0].title").value("Edited"))
+                .andExpect(jsonPath("$.deletedIds.length()").value(1))
+                .andExpect(jsonPath("$.deletedIds[0]").value(tasks.get(1).getId()))
+                .andExpect(jsonPath("$.watermark").isNumber());
+    }
+
+    @Test
+    void changesBeyondTombstoneRetentionAreGone() throws Exception {
+        mockMvc.perform(get("/tasks/changes").param("since", "0"))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.message").exists());
+    }
+
+    @Test
+    void otherUsersTasksAreInvisible() throws Exception {
+        User other = userRepository.findByEmail("other@example.com")
+                .orElseGet(() -> userRepository.save(new User(null, "other", "hash", "other@example.com", Set.of())));
+        Task foreign = taskRepository.save(ownedTask(other.getId(), "Foreign", "Not yours"));
+
+        mockMvc.perform(get("/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5));
+        mockMvc.perform(get("/tasks/{id}", foreign.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(""));
+        mockMvc.perform(head("/tasks/{id}", foreign.getId()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/tasks/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + foreign.getId() + "]"))
+                .andExpect(status().isOk());
+
+        assertEquals(true, taskRepository.existsById(foreign.getId()));
+    }
+
+    @Test
+    void countAndExistsAnswerWithoutLoadingTasks() throws Exception {
+        Task task = taskRepository.findByOwnerIdOrderByIdAsc(ownerId).get(0);
+        mockMvc.perform(put("/tasks/{id}", task.getId()).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Done\",\"description\":\"d\",\"completed\":true}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/tasks/count"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(5));
+        mockMvc.perform(get("/tasks/count").param("completed", "true"))
+                .andExpect(jsonPath("$.count").value(1));
+        mockMvc.perform(get("/tasks/page").param("completed", "false"))
+                .andExpect(jsonPath("$.tasks.length()").value(4));
+        mockMvc.perform(head("/tasks/{id}", task.getId()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void patchAppliesPresentFieldsAndRejectsStaleETags() throws Exception {
+        Task task = taskRepository.findAll().get(0);
+        String eTag = mockMvc.perform(get("/tasks/{id}", task.getId()))
+                .andReturn().getResponse().getHeader("ETag");
+
+        String newETag = mockMvc.perform(patch("/tasks/{id}", task.getId()).header("If-Match", eTag)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"completed\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completed").value(true))
+                .andExpect(jsonPath("$.title").value(task.getTitle()))
+                .andExpect(jsonPath("$.description").value(task.getDescription()))
+                .andExpect(header().string("ETag", org.hamcrest.Matchers.not(eTag)))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(patch("/tasks/{id}", task.getId()).header("If-Match", eTag)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Lost\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").exists());
+
+        mockMvc.perform(patch("/tasks/{id}", task.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Blind\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completed").value(true));
+
+        mockMvc.perform(patch("/tasks/{id}", task.getId()).header("If-Match", newETag)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Stale again\"}"))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(patch("/tasks/{id}", task.getId()).header("If-Match", "\"not-a-version\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Malformed\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").exists());
+
+        mockMvc.perform(patch("/tasks/{id}", Long.MAX_VALUE)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"completed\":true}"))
+                .andExpect(status().isNotFound());
+    }
+
+    private static Task ownedTask(Long ownerId, String title, String description) {
+        Task task = new Task(null, title, description, false);
+        task.setOwnerId(ownerId);
+        return task;
+    }
+}
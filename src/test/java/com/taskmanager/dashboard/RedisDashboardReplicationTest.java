@@ -0,0 +1,121 @@
+package com.taskmanager.dashboard;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.event.TaskChangedEvent;
+import com.taskmanager.model.Task;
+import com.taskmanager.payload.response.DashboardResponse;
+import com.taskmanager.service.TaskService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class RedisDashboardReplicationTest {
+
+    private static final Long OWNER = 7L;
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private TaskDashboard firstDashboard;
+    private TaskDashboard secondDashboard;
+    private RedisDashboardReplication first;
+    private RedisDashboardReplication second;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        StaticListableBeanFactory firstNode = new StaticListableBeanFactory();
+        StaticListableBeanFactory secondNode = new StaticListableBeanFactory();
+        firstDashboard = new TaskDashboard(mock(TaskService.class), firstNode.getBeanProvider(RedisDashboardReplication.class), 3);
+        secondDashboard = new TaskDashboard(mock(TaskService.class), secondNode.getBeanProvider(RedisDashboardReplication.class), 3);
+        first = new RedisDashboardReplication(redisTemplate, firstDashboard, objectMapper);
+        second = new RedisDashboardReplication(redisTemplate, secondDashboard, objectMapper);
+        firstNode.addBean("replication", first);
+        secondNode.addBean("replication", second);
+        first.start();
+        second.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        first.stop();
+        second.stop();
+    }
+
+    @Test
+    void changesOnOneNodeReachTheOtherNodesDashboard() throws InterruptedException {
+        firstDashboard.onTaskChanged(TaskChangedEvent.created(OWNER, List.of(task(1L, "Remote", true), task(2L, "Other", false))));
+        secondDashboard.onTaskChanged(TaskChangedEvent.deleted(OWNER, List.of(2L), 0));
+
+        awaitTrue(() -> secondDashboard.get(OWNER).getTotal() == 1 && firstDashboard.get(OWNER).getTotal() == 1);
+        DashboardResponse seenElsewhere = secondDashboard.get(OWNER);
+        assertEquals(1, seenElsewhere.getCompleted());
+        assertEquals(List.of("Remote", "Other"), seenElsewhere.getRecentActivity().stream()
+                .filter(activity -> activity.getType() == TaskChangedEvent.Type.CREATED)
+                .map(DashboardResponse.Activity::getTitle).toList().reversed());
+    }
+
+    @Test
+    void aNodesOwnChangesAreAppliedOnce() throws InterruptedException {
+        firstDashboard.onTaskChanged(TaskChangedEvent.created(OWNER, List.of(task(1L, "Once", false))));
+        awaitTrue(() -> secondDashboard.get(OWNER).getTotal() == 1);
+        // The second change only reaches the first node after the echo of the first would have.
+        secondDashboard.onTaskChanged(TaskChangedEvent.created(OWNER, List.of(task(2L, "Marker", false))));
+        awaitTrue(() -> firstDashboard.get(OWNER).getRecentActivity().size() == 2);
+
+        assertEquals(2, firstDashboard.get(OWNER).getTotal());
+        assertEquals(2, secondDashboard.get(OWNER).getTotal());
+    }
+
+    private static Task task(Long id, String title, boolean completed) {
+        Task task = new Task(id, title, "", completed);
+        task.setOwnerId(OWNER);
+        return task;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.taskmanager.dashboard;
+
+import com.taskmanager.event.TaskChangedEvent;
+import com.taskmanager.model.OwnerTaskCounts;
+import com.taskmanager.model.Task;
+import com.taskmanager.payload.request.TaskPatchRequest;
+import com.taskmanager.payload.response.DashboardResponse;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.service.TaskService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:task-dashboard;DB_CLOSE_DELAY=-1",
+        "app.dashboard.recent-activity-size=3"
+})
+@AutoConfigureMockMvc
+class TaskDashboardTest {
+
+    @Autowired
+    private TaskDashboard taskDashboard;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = userRepository.findByEmail("test@example.com").orElseThrow().getId();
+        jdbcTemplate.update("DELETE FROM tasks");
+        taskDashboard.reconcile();
+    }
+
+    @Test
+    void countsFollowEveryKindOfChangeWithoutQueries() {
+        List<Task> created = taskService.createTasks(ownerId, List.of(
+                new Task(null, "a", "", false), new Task(null, "b", "", true), new Task(null, "c", "", false)));
+        assertMatchesDatabase();
+
+        Task single = taskService.createTask(ownerId, new Task(null, "d", "", true));
+        taskService.updateTask(ownerId, created.get(0).getId(), new Task(null, "a", "", true));
+        assertMatchesDatabase();
+
+        TaskPatchRequest reopen = new TaskPatchRequest();
+        reopen.setCompleted(false);
+        taskService.patchTask(ownerId, created.get(1).getId(), reopen, null);
+        taskService.updateTasks(ownerId, List.of(new Task(created.get(2).getId(), "c", "", true)));
+        assertMatchesDatabase();
+
+        taskService.deleteTask(ownerId, single.getId());
+        taskService.deleteTasks(ownerId, List.of(created.get(0).getId(), created.get(1).getId()));
+        assertMatchesDatabase();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        DashboardResponse dashboard = taskDashboard.get(ownerId);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, dashboard.getTotal());
+        assertEquals(1, dashboard.getCompleted());
+        assertEquals(0, dashboard.getPending());
+    }
+
+    @Test
+    void recentActivityIsNewestFirstAndCapped() {
+        Task task = taskService.createTask(ownerId, new Task(null, "First", "", false));
+        taskService.updateTask(ownerId, task.getId(), new Task(null, "Renamed", "", true));
+        taskService.createTasks(ownerId, List.of(new Task(null, "Second", "", false), new Task(null, "Third", "", false)));
+        taskService.deleteTask(ownerId, task.getId());
+
+        List<DashboardResponse.Activity> recent = taskDashboard.get(ownerId).getRecentActivity();
+
+        assertEquals(3, recent.size());
+        assertEquals(TaskChangedEvent.Type.DELETED, recent.get(0).getType());
+        assertEquals(task.getId(), recent.get(0).getTaskId());
+        assertEquals("Third", recent.get(1).getTitle());
+        assertEquals("Second", recent.get(2).getTitle());
+    }
+
+    @Test
+    void reconciliationCorrectsChangesMadeBehindTheServicesBack() {
+        taskService.createTask(ownerId, new Task(null, "Tracked", "", false));
+        jdbcTemplate.update("INSERT INTO tasks (id, title, description, completed, owner_id, version, updated_at) "
+                + "VALUES (1000000, 'Untracked', '', TRUE, ?, 0, CURRENT_TIMESTAMP)", ownerId);
+        assertEquals(1, taskDashboard.get(ownerId).getTotal());
+
+        taskDashboard.reconcile();
+
+        assertMatchesDatabase();
+        assertEquals(2, taskDashboard.get(ownerId).getTotal());
+    }
+
+    @Test
+    void concurrentWritersDoNotLoseUpdates() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                int t = thread;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 25; i++) {
+                        Task task = taskService.createTask(ownerId, new Task(null, "t" + t + "-" + i, "", i % 2 == 0));
+                        if (i % 5 == 0) {
+                            taskService.deleteTask(ownerId, task.getId());
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertMatchesDatabase();
+        assertEquals(160, taskDashboard.get(ownerId).getTotal());
+    }
+
+    @Test
+    @WithUserDetails("test@example.com")
+    void dashboardEndpointServesTheCounts() throws Exception {
+        taskService.createTasks(ownerId, List.of(new Task(null, "a", "", true), new Task(null, "b", "", false)));
+
+        mockMvc.perform(get("/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.completed").value(1))
+                .andExpect(jsonPath("$.pending").value(1))
+                .andExpect(jsonPath("$.recentActivity[0].title").value("b"));
+    }
+
+    private void assertMatchesDatabase() {
+        OwnerTaskCounts actual = taskService.getTaskCounts(ownerId);
+        DashboardResponse dashboard = taskDashboard.get(ownerId);
+        assertEquals(actual.total(), dashboard.getTotal());
+        assertEquals(actual.completed(), dashboard.getCompleted());
+    }
+}
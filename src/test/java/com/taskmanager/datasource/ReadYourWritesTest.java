@@ -0,0 +1,95 @@
+package com.taskmanager.datasource;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadYourWritesTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port = freePort();
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void flush() {
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    @Test
+    void aWriteOnOneNodeKeepsTheWritersReadsOnThePrimaryEverywhere() throws InterruptedException {
+        ReadYourWrites first = new ReadYourWrites(redisTemplate, "redis", 1000, 100, 30);
+        ReadYourWrites second = new ReadYourWrites(redisTemplate, "redis", 1000, 100, 30);
+
+        first.recordWrite("ann@example.com");
+
+        assertTrue(second.as("ann@example.com", second::wroteRecently));
+        assertFalse(second.as("bob@example.com", second::wroteRecently));
+
+        Thread.sleep(1100);
+        assertFalse(second.as("ann@example.com", second::wroteRecently));
+    }
+
+    @Test
+    void theLocalStoreOnlyKnowsThisNodesWriters() {
+        ReadYourWrites first = new ReadYourWrites(redisTemplate, "local", 5000, 100, 30);
+        ReadYourWrites second = new ReadYourWrites(redisTemplate, "local", 5000, 100, 30);
+
+        first.recordWrite("ann@example.com");
+
+        assertTrue(first.as("ann@example.com", first::wroteRecently));
+        assertFalse(second.as("ann@example.com", second::wroteRecently));
+        assertTrue(redisTemplate.keys("read-your-writes:*").isEmpty());
+    }
+
+    @Test
+    void everyoneReadsFromThePrimaryWhileRedisIsUnreachable() throws IOException {
+        LettuceConnectionFactory unreachable =
+                new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", freePort()));
+        unreachable.afterPropertiesSet();
+        unreachable.start();
+        try {
+            ReadYourWrites node = new ReadYourWrites(new StringRedisTemplate(unreachable), "redis", 5000, 100, 30);
+
+            assertTrue(node.as("ann@example.com", node::wroteRecently));
+            // Still backing off, so this reader goes to the primary without asking Redis.
+            assertTrue(node.as("bob@example.com", node::wroteRecently));
+            assertFalse(node.wroteRecently());
+        } finally {
+            unreachable.destroy();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
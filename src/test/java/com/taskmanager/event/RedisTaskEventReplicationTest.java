@@ -0,0 +1,111 @@
+package com.taskmanager.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.model.Task;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisTaskEventReplicationTest {
+
+    private static final Long OWNER = 7L;
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<Object> firstEvents = new CopyOnWriteArrayList<>();
+    private final List<Object> secondEvents = new CopyOnWriteArrayList<>();
+    private RedisTaskEventReplication first;
+    private RedisTaskEventReplication second;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        first = new RedisTaskEventReplication(redisTemplate, firstEvents::add, objectMapper);
+        second = new RedisTaskEventReplication(redisTemplate, secondEvents::add, objectMapper);
+        first.start();
+        second.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        first.stop();
+        second.stop();
+    }
+
+    @Test
+    void changesOnOneNodeArriveOnTheOtherAsRemoteEvents() throws InterruptedException {
+        Task task = new Task(1L, "Remote", "made elsewhere", true);
+        task.setOwnerId(OWNER);
+        task.setVersion(3L);
+        first.onTaskChanged(TaskChangedEvent.updated(OWNER, List.of(task), 1));
+        first.onTaskChanged(TaskChangedEvent.deleted(OWNER, List.of(2L), 0));
+
+        awaitTrue(() -> secondEvents.size() == 2);
+        TaskChangedEvent updated = ((RemoteTaskChangedEvent) secondEvents.get(0)).change();
+        assertEquals(TaskChangedEvent.Type.UPDATED, updated.type());
+        assertEquals(OWNER, updated.ownerId());
+        assertEquals(1, updated.completedDelta());
+        Task received = updated.tasks().get(0);
+        assertEquals(List.of(1L, "Remote", "made elsewhere", true, OWNER, 3L),
+                List.of(received.getId(), received.getTitle(), received.getDescription(), received.isCompleted(),
+                        received.getOwnerId(), received.getVersion()));
+        assertEquals(TaskChangedEvent.deleted(OWNER, List.of(2L), 0), ((RemoteTaskChangedEvent) secondEvents.get(1)).change());
+    }
+
+    @Test
+    void aNodeDoesNotReceiveItsOwnChanges() throws InterruptedException {
+        first.onTaskChanged(TaskChangedEvent.deleted(OWNER, List.of(1L), 0));
+        awaitTrue(() -> secondEvents.size() == 1);
+        // The second change only reaches the first node after the echo of the first would have.
+        second.onTaskChanged(TaskChangedEvent.deleted(OWNER, List.of(2L), 0));
+        awaitTrue(() -> firstEvents.size() == 1);
+
+        assertEquals(List.of(new RemoteTaskChangedEvent(TaskChangedEvent.deleted(OWNER, List.of(2L), 0))), firstEvents);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.taskmanager.search;
+
+import com.taskmanager.event.RemoteTaskChangedEvent;
+import com.taskmanager.event.TaskChangedEvent;
+import com.taskmanager.model.Task;
+import com.taskmanager.service.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class TaskSearchIndexTest {
+
+    private static final Long OWNER = 7L;
+
+    private TaskService taskService;
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        taskService = mock(TaskService.class);
+        index = new TaskSearchIndex(taskService, "", 100, 100);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        index.close();
+    }
+
+    @Test
+    void rebuildIndexesEveryTaskFromTheDatabase() {
+        doAnswer(invocation -> {
+            Consumer<Task> consumer = invocation.getArgument(0);
+            consumer.accept(task(1L, "Write report", "Quarterly numbers", false));
+            consumer.accept(task(2L, "Call plumber", "Kitchen sink leaks", false));
+            return null;
+        }).when(taskService).streamAllTasks(any());
+
+        index.rebuild();
+
+        assertEquals(List.of(2L), index.search(OWNER, "sink", 10));
+        assertEquals(List.of(1L), index.search(OWNER, "REPORT", 10));
+    }
+
+    @Test
+    void allTermsMustMatchAndTrailingStarMatchesPrefix() {
+        index.onTaskChanged(TaskChangedEvent.created(OWNER, List.of(
+                task(1L, "Deploy backend", "Roll out the new release", false),
+                task(2L, "Deploy frontend", "Static assets only", false))));
+        index.awaitSearchable();
+
+        assertEquals(List.of(1L), index.search(OWNER, "deploy release", 10));
+        assertEquals(2, index.search(OWNER, "depl*", 10).size());
+        assertEquals(List.of(2L), index.search(OWNER, "fronte*", 10));
+        assertTrue(index.search(OWNER, "deploy missing", 10).isEmpty());
+        assertTrue(index.search(OWNER, "   ", 10).isEmpty());
+    }
+
+    @Test
+    void titleMatchesRankAboveDescriptionMatches() {
+        index.onTaskChanged(TaskChangedEvent.created(OWNER, List.of(
+                task(1L, "Groceries", "Buy milk on the way home", false),
+                task(2L, "Milk", "Oat, not dairy", false))));
+        index.awaitSearchable();
+
+        assertEquals(List.of(2L, 1L), index.search(OWNER, "milk", 10));
+        assertEquals(List.of(2L), index.search(OWNER, "milk", 1));
+    }
+
+    @Test
+    void updatesAndDeletesBecomeSearchable() {
+        index.onTaskChanged(TaskChangedEvent.created(OWNER, List.of(task(1L, "Draft invoice", "", false))));
+        index.onTaskChanged(TaskChangedEvent.updated(OWNER, List.of(task(1L, "Send invoice", "", true)), 1));
+        index.awaitSearchable();
+
+        assertTrue(index.search(OWNER, "draft", 10).isEmpty());
+        assertEquals(List.of(1L), index.search(OWNER, "send invoice", 10));
+
+        index.onTaskChanged(TaskChangedEvent.deleted(OWNER, List.of(1L), -1));
+        index.awaitSearchable();
+
+        assertTrue(index.search(OWNER, "invoice", 10).isEmpty());
+    }
+
+    @Test
+    void changesCommittedOnOtherNodesBecomeSearchable() {
+        index.onRemoteTaskChanged(new RemoteTaskChangedEvent(
+                TaskChangedEvent.created(OWNER, List.of(task(1L, "Remote errand", "", false)))));
+        index.awaitSearchable();
+        assertEquals(List.of(1L), index.search(OWNER, "errand", 10));
+
+        index.onRemoteTaskChanged(new RemoteTaskChangedEvent(TaskChangedEvent.deleted(OWNER, List.of(1L), 0)));
+        index.awaitSearchable();
+        assertTrue(index.search(OWNER, "errand", 10).isEmpty());
+    }
+
+    @Test
+    void rebuildDoesNotOverwriteChangesMadeWhileItRuns() {
+        doAnswer(invocation -> {
+            Consumer<Task> consumer = invocation.getArgument(0);
+            // A concurrent update commits after the rebuild's snapshot was read.
+            index.onTaskChanged(TaskChangedEvent.updated(OWNER, List.of(task(1L, "Fresh title", "", false)), 0));
+            consumer.accept(task(1L, "Stale title", "", false));
+            return null;
+        }).when(taskService).streamAllTasks(any());
+
+        index.rebuild();
+        index.awaitSearchable();
+
+        assertEquals(List.of(1L), index.search(OWNER, "fresh", 10));
+        assertTrue(index.search(OWNER, "stale", 10).isEmpty());
+    }
+
+    @Test
+    void searchesDuringARebuildSeeTheCompletePreviousIndex() {
+        index.onTaskChanged(TaskChangedEvent.created(OWNER, List.of(task(1L, "Old entry", "", false))));
+        index.awaitSearchable();
+        List<List<Long>> seenDuringRebuild = new ArrayList<>();
+        doAnswer(invocation -> {
+            Consumer<Task> consumer = invocation.getArgument(0);
+            consumer.accept(task(2L, "New entry", "", false));
+            seenDuringRebuild.add(index.search(OWNER, "entry", 10));
+            consumer.accept(task(1L, "Old entry", "", false));
+            return null;
+        }).when(taskService).streamAllTasks(any());
+
+        index.rebuild();
+
+        assertEquals(List.of(List.of(1L)), seenDuringRebuild);
+        assertEquals(Set.of(1L, 2L), Set.copyOf(index.search(OWNER, "entry", 10)));
+    }
+
+    @Test
+    void onDiskIndexIsServedAfterARestartAndReplacedByTheRebuild(@TempDir Path dir) throws Exception {
+        TaskSearchIndex first = new TaskSearchIndex(taskService, dir.toString(), 100, 100);
+        first.index(List.of(task(1L, "Persisted", "", false)));
+        first.close();
+
+        TaskSearchIndex restarted = new TaskSearchIndex(taskService, dir.toString(), 100, 100);
+        try {
+            assertEquals(List.of(1L), restarted.search(OWNER, "persisted", 10));
+
+            doAnswer(invocation -> {
+                Consumer<Task> consumer = invocation.getArgument(0);
+                consumer.accept(task(2L, "Reconciled", "", false));
+                return null;
+            }).when(taskService).streamAllTasks(any());
+            restarted.rebuild();
+
+            assertTrue(restarted.search(OWNER, "persisted", 10).isEmpty());
+            assertEquals(List.of(2L), restarted.search(OWNER, "reconciled", 10));
+            try (Stream<Path> generations = Files.list(dir)) {
+                assertEquals(1, generations.count());
+            }
+        } finally {
+            restarted.close();
+        }
+    }
+
+    @Test
+    void searchOnlyReturnsTheOwnersTasks() {
+        Task other = task(2L, "Shared words", "", false);
+        other.setOwnerId(8L);
+        index.onTaskChanged(TaskChangedEvent.created(8L, List.of(other)));
+        index.onTaskChanged(TaskChangedEvent.created(OWNER, List.of(task(1L, "Shared words", "", false))));
+        index.awaitSearchable();
+
+        assertEquals(List.of(1L), index.search(OWNER, "shared", 10));
+        assertEquals(List.of(2L), index.search(8L, "shared", 10));
+    }
+
+    private static Task task(Long id, String title, String description, boolean completed) {
+        Task task = new Task(id, title, description, completed);
+        task.setOwnerId(OWNER);
+        return task;
+    }
+}
@@ -0,0 +1,152 @@
+package com.taskmanager.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (encoder != null) {
+            encoder.close();
+        }
+    }
+
+    @Test
+    void hashingNeverRunsOnMoreThanTheConfiguredThreads() throws Exception {
+        SlowEncoder slow = new SlowEncoder(20);
+        encoder = new BoundedPasswordEncoder(slow, 2, 100, Duration.ofSeconds(30), registry);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(callers.submit(() -> encoder.encode("secret")));
+        }
+        for (Future<String> result : results) {
+            assertEquals("hashed:secret", result.get(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(2, slow.maxConcurrent.get());
+        assertEquals(20, registry.get("auth.password.queue.wait").timer().count());
+    }
+
+    @Test
+    void fullQueueIsRejectedImmediately() throws Exception {
+        BlockingEncoder blocking = new BlockingEncoder();
+        encoder = new BoundedPasswordEncoder(blocking, 1, 1, Duration.ofSeconds(30), registry);
+
+        Future<String> running = callers.submit(() -> encoder.encode("a"));
+        assertTrue(blocking.started.await(5, TimeUnit.SECONDS));
+        Future<String> queued = callers.submit(() -> encoder.encode("b"));
+        while (registry.get("auth.password.queue.size").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("c"));
+        assertEquals(1, registry.get("auth.password.rejected").tag("reason", "queue_full").counter().count());
+
+        blocking.release.countDown();
+        assertEquals("hashed:a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed:b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void workThatOutwaitedItsBudgetIsDroppedWithoutHashing() throws Exception {
+        BlockingEncoder blocking = new BlockingEncoder();
+        encoder = new BoundedPasswordEncoder(blocking, 1, 10, Duration.ofMillis(50), registry);
+
+        Future<String> running = callers.submit(() -> encoder.encode("a"));
+        assertTrue(blocking.started.await(5, TimeUnit.SECONDS));
+        Future<Boolean> queued = callers.submit(() -> encoder.matches("b", "hashed:b"));
+        Thread.sleep(200);
+        blocking.release.countDown();
+
+        assertEquals("hashed:a", running.get(5, TimeUnit.SECONDS));
+        Exception e = assertThrows(Exception.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(PasswordHashingRejectedException.class, e.getCause());
+        assertEquals(1, blocking.calls.get());
+        assertEquals(1, registry.get("auth.password.rejected").tag("reason", "queue_timeout").counter().count());
+    }
+
+    @Test
+    void encoderExceptionsReachTheCallerUnwrapped() {
+        PasswordEncoder failing = new SlowEncoder(0) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                throw new IllegalArgumentException("Encoded password does not look like BCrypt");
+            }
+        };
+        encoder = new BoundedPasswordEncoder(failing, 1, 10, Duration.ofSeconds(1), registry);
+
+        assertThrows(IllegalArgumentException.class, () -> encoder.matches("a", "plain"));
+    }
+
+    private static class SlowEncoder implements PasswordEncoder {
+        private final long millis;
+        private final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+
+        SlowEncoder(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                concurrent.decrementAndGet();
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+
+    private static class BlockingEncoder implements PasswordEncoder {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
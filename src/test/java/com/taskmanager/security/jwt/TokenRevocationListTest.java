@@ -0,0 +1,86 @@
+package com.taskmanager.security.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationListTest {
+
+    private static final long HOUR = 3_600_000;
+
+    private final TokenRevocationList list = new TokenRevocationList(HOUR, 100);
+
+    @Test
+    void revokedTokenIdsAreRejectedAndOthersAccepted() {
+        long expiresAt = System.currentTimeMillis() + HOUR;
+        list.revokeToken("revoked", expiresAt);
+
+        assertTrue(list.isRevoked(token("ann@example.com", "revoked", 0, expiresAt)));
+        assertFalse(list.isRevoked(token("ann@example.com", "other", 0, expiresAt)));
+        assertFalse(list.isRevoked(token("ann@example.com", null, 0, expiresAt)));
+    }
+
+    @Test
+    void watermarkRevokesOnlyEarlierTokensOfItsSubject() {
+        long now = System.currentTimeMillis() / 1000;
+        list.revokeIssuedBefore("ann@example.com", now);
+        list.revokeIssuedBefore("ann@example.com", now - 100);
+
+        assertTrue(list.isRevoked(token("ann@example.com", "a", now - 1, 0)));
+        assertFalse(list.isRevoked(token("ann@example.com", "b", now, 0)));
+        assertFalse(list.isRevoked(token("bob@example.com", "c", now - 1, 0)));
+    }
+
+    @Test
+    void pruneDropsEntriesNoLiveTokenCanMatchAndKeepsTheRest() {
+        long now = System.currentTimeMillis();
+        list.revokeToken("expired", now + 50);
+        list.revokeIssuedBefore("old@example.com", (now - HOUR) / 1000 - 1);
+        for (int i = 0; i < 1000; i++) {
+            list.revokeToken("live-" + i, now + HOUR);
+        }
+
+        waitUntil(now + 100);
+        list.prune();
+
+        assertEquals(1000, list.size());
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(list.isRevoked(token("ann@example.com", "live-" + i, 0, now + HOUR)));
+        }
+        assertFalse(list.isRevoked(token("old@example.com", "expired", 0, now + HOUR)));
+    }
+
+    @Test
+    void alreadyExpiredTokensAreNotRecorded() {
+        list.revokeToken("expired", System.currentTimeMillis() - 1);
+        assertEquals(0, list.size());
+    }
+
+    @Test
+    void bloomFilterHasNoFalseNegativesAndFewFalsePositives() {
+        BloomFilter filter = new BloomFilter(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("member-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("member-" + i));
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, falsePositives + " false positives");
+    }
+
+    private static VerifiedToken token(String subject, String id, long issuedAtSeconds, long expiresAtMillis) {
+        return new VerifiedToken(subject, subject, id, issuedAtSeconds, expiresAtMillis);
+    }
+
+    private static void waitUntil(long millis) {
+        while (System.currentTimeMillis() < millis) {
+            Thread.onSpinWait();
+        }
+    }
+}
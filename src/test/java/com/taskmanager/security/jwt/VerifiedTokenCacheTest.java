@@ -0,0 +1,70 @@
+package com.taskmanager.security.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private static final long NOW = 1_000_000_000L;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void entriesExpireWithTheirToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, nanos::get);
+        cache.put("short", token(NOW + 1_000), NOW);
+        cache.put("long", token(NOW + 60_000), NOW);
+
+        advanceMillis(999);
+        assertNotNull(cache.get("short", NOW + 999));
+
+        advanceMillis(1);
+        assertNull(cache.get("short", NOW + 1_000));
+        assertNotNull(cache.get("long", NOW + 1_000));
+
+        // Reads honour exp exactly; removal follows on the timer wheel's roughly one-second ticks.
+        advanceMillis(2_000);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void expiredTokensAreNeitherStoredNorServed() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, nanos::get);
+        cache.put("expired", token(NOW), NOW);
+        cache.put("live", token(NOW + 1_000), NOW);
+
+        assertNull(cache.get("expired", NOW));
+        // The wall clock passing exp is enough, even if the cache has not expired the entry yet.
+        assertNull(cache.get("live", NOW + 1_000));
+    }
+
+    @Test
+    void sizeStaysBoundedWhenFullOfLiveTokens() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, nanos::get);
+        for (int i = 0; i < 1_000; i++) {
+            cache.put("token-" + i, token(NOW + 60_000), NOW);
+        }
+
+        assertEquals(100, cache.size());
+    }
+
+    @Test
+    void zeroSizeDisablesCaching() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(0, nanos::get);
+        cache.put("token", token(NOW + 60_000), NOW);
+
+        assertEquals(0, cache.size());
+    }
+
+    private void advanceMillis(long millis) {
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private static VerifiedToken token(long expiresAtMillis) {
+        return new VerifiedToken("ann@example.com", "ann@example.com", null, 0, expiresAtMillis);
+    }
+}
@@ -0,0 +1,45 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.repository.TaskTombstoneRepository;
+import com.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The bulk operations size their flushes by the JDBC batch size, which may be turned off.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:unbatched;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=0"
+})
+class TaskBatchWithoutJdbcBatchingTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void bulkCreateAndDeleteWorkWithBatchingDisabled() {
+        Instant start = Instant.now().minusSeconds(1);
+        Long ownerId = userRepository.findByEmail("test@example.com").orElseThrow().getId();
+        List<Task> created = taskService.createTasks(ownerId, List.of(
+                new Task(null, "A", "a", false), new Task(null, "B", "b", true), new Task(null, "C", "c", false)));
+        assertEquals(3, taskService.countTasks(ownerId, null));
+
+        taskService.deleteTasks(ownerId, created.stream().map(Task::getId).toList());
+        assertEquals(0, taskService.countTasks(ownerId, null));
+        assertEquals(3, tombstoneRepository.findTaskIdsDeletedAfter(ownerId, start).size());
+    }
+}
@@ -0,0 +1,77 @@
+package com.taskmanager.service;
+
+import com.taskmanager.entity.User;
+import com.taskmanager.model.Task;
+import com.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that every per-user task query is planned on an owner index, so its cost follows the
+ * user's own task count rather than the table size, once the planner has statistics for a table
+ * mostly owned by others. TaskOwnershipBenchmark measures the latency with a large table.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:task-ownership;DB_CLOSE_DELAY=-1")
+class TaskOwnershipIndexTest {
+
+    private static final int OWN_TASKS = 20;
+    private static final int OTHER_ROWS = 5_000;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void ownerQueriesUseAnOwnerIndexAndSeeOnlyTheirOwnTasks() {
+        Long ownerId = userRepository.findByEmail("test@example.com").orElseThrow().getId();
+        List<Task> own = new ArrayList<>();
+        for (int i = 0; i < OWN_TASKS; i++) {
+            own.add(new Task(null, "Mine " + i, "owned by the test user", i % 4 == 0));
+        }
+        taskService.createTasks(ownerId, own);
+        insertOtherUsersTasks();
+
+        assertEquals(OWN_TASKS, taskService.getAllTasks(ownerId).size());
+        assertEquals(OWN_TASKS / 4, taskService.countTasks(ownerId, true));
+        assertEquals(OWN_TASKS - OWN_TASKS / 4, taskService.getTaskPage(ownerId, null, 50, false).getTasks().size());
+
+        String owned = "FROM tasks WHERE owner_id = " + ownerId + " AND deleted_at IS NULL";
+        assertPlannedOn("IDX_TASKS_OWNER_DELETED_AT_ID", "SELECT * " + owned + " ORDER BY id");
+        assertPlannedOn("IDX_TASKS_OWNER_DELETED_AT_ID", "SELECT * " + owned + " AND id > 0 ORDER BY id FETCH FIRST 50 ROWS ONLY");
+        assertPlannedOn("IDX_TASKS_OWNER_COMPLETED_ID", "SELECT * " + owned + " AND completed = FALSE AND id > 0 ORDER BY id FETCH FIRST 50 ROWS ONLY");
+        assertPlannedOn("IDX_TASKS_OWNER_COMPLETED_ID", "SELECT COUNT(*) " + owned + " AND completed = TRUE");
+    }
+
+    private void assertPlannedOn(String index, String query) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + query, String.class);
+        assertTrue(plan.toUpperCase().contains(index), plan);
+    }
+
+    private void insertOtherUsersTasks() {
+        Long otherId = userRepository.save(new User(null, "crowd", "hash", "crowd@example.com", Set.of())).getId();
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(OTHER_ROWS);
+        for (int i = 0; i < OTHER_ROWS; i++) {
+            rows.add(new Object[]{1_000_000_000L + i, "Other " + i, "someone else's task", i % 4 == 0, now, otherId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tasks (id, title, description, completed, version, updated_at, owner_id) "
+                + "VALUES (?, ?, ?, ?, 0, ?, ?)", rows);
+        jdbcTemplate.execute("ANALYZE");
+    }
+}
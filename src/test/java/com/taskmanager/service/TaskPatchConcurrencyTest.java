@@ -0,0 +1,138 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.payload.request.TaskPatchRequest;
+import com.taskmanager.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:task-patch;DB_CLOSE_DELAY=-1")
+class TaskPatchConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int PATCHES_PER_THREAD = 25;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = userRepository.findByEmail("test@example.com").orElseThrow().getId();
+    }
+
+    @Test
+    void togglingCompletedIsOneSelectAndOneUpdate() {
+        Task task = taskService.createTask(ownerId, new Task(null, "Toggle", "Unchanged", false));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        Task patched = taskService.patchTask(ownerId, task.getId(), patch(null, true), task.getVersion()).orElseThrow();
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertTrue(patched.isCompleted());
+        assertEquals("Unchanged", patched.getDescription());
+        assertEquals(task.getVersion() + 1, patched.getVersion());
+    }
+
+    @Test
+    void staleVersionIsRejected() {
+        Task task = taskService.createTask(ownerId, new Task(null, "Stale", "d", false));
+        taskService.patchTask(ownerId, task.getId(), patch("Fresh", null), task.getVersion());
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> taskService.patchTask(ownerId, task.getId(), patch("Lost", null), task.getVersion()));
+        assertEquals("Fresh", taskService.getTaskById(ownerId, task.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void conditionalIncrementsFromManyThreadsLoseNoUpdates() throws Exception {
+        Task task = taskService.createTask(ownerId, new Task(null, "0", "counter", false));
+
+        hammer(() -> {
+            for (int i = 0; i < PATCHES_PER_THREAD; i++) {
+                while (true) {
+                    Task current = taskService.getTaskById(ownerId, task.getId()).orElseThrow();
+                    String next = String.valueOf(Integer.parseInt(current.getTitle()) + 1);
+                    try {
+                        taskService.patchTask(ownerId, task.getId(), patch(next, null), current.getVersion());
+                        break;
+                    } catch (OptimisticLockingFailureException e) {
+                        // Another thread got there first; reread and retry.
+                    }
+                }
+            }
+            return null;
+        });
+
+        Task result = taskService.getTaskById(ownerId, task.getId()).orElseThrow();
+        assertEquals(String.valueOf(THREADS * PATCHES_PER_THREAD), result.getTitle());
+        assertEquals(task.getVersion() + THREADS * PATCHES_PER_THREAD, result.getVersion());
+    }
+
+    @Test
+    void blindPatchesFromManyThreadsAllApply() throws Exception {
+        Task task = taskService.createTask(ownerId, new Task(null, "Blind", "d", false));
+        AtomicInteger thread = new AtomicInteger();
+
+        hammer(() -> {
+            int t = thread.incrementAndGet();
+            for (int i = 0; i < PATCHES_PER_THREAD; i++) {
+                TaskPatchRequest patch = patch("thread " + t + " patch " + i, i % 2 == 0);
+                assertTrue(taskService.patchTask(ownerId, task.getId(), patch, null).isPresent());
+            }
+            return null;
+        });
+
+        // Every patch changes the title, so each one must have bumped the version exactly once.
+        Task result = taskService.getTaskById(ownerId, task.getId()).orElseThrow();
+        assertEquals(task.getVersion() + THREADS * PATCHES_PER_THREAD, result.getVersion());
+    }
+
+    private static void hammer(Callable<Void> worker) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(worker));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static TaskPatchRequest patch(String title, Boolean completed) {
+        TaskPatchRequest patch = new TaskPatchRequest();
+        patch.setTitle(title);
+        patch.setCompleted(completed);
+        return patch;
+    }
+}
@@ -0,0 +1,119 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:task-soft-delete;DB_CLOSE_DELAY=-1",
+        "app.tasks.purge.batch-size=10",
+        "app.tasks.purge.pause-ms=0"
+})
+class TaskSoftDeleteTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskPurger taskPurger;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = userRepository.findByEmail("test@example.com").orElseThrow().getId();
+        taskPurger.purgeDeletedBefore(Instant.now().plusSeconds(60));
+        jdbcTemplate.update("DELETE FROM tasks");
+    }
+
+    @Test
+    void deleteTombstonesTheRowWithOneUpdateAndHidesIt() {
+        Task task = taskService.createTask(ownerId, new Task(null, "Doomed", "d", false));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        taskService.deleteTask(ownerId, task.getId());
+        // The conditional soft-delete UPDATE and the delta-sync tombstone insert; no SELECT first.
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tasks WHERE id = ? AND deleted_at IS NOT NULL", Integer.class, task.getId()));
+        assertTrue(taskService.getTaskById(ownerId, task.getId()).isEmpty());
+        assertTrue(taskService.getAllTasks(ownerId).isEmpty());
+        assertEquals(0, taskService.countTasks(ownerId, null));
+        assertFalse(taskService.taskExists(ownerId, task.getId()));
+    }
+
+    @Test
+    void batchDeleteTombstonesOnlyTheGivenTasks() {
+        List<Task> tasks = taskService.createTasks(ownerId, newTasks(5));
+        List<Long> ids = tasks.stream().map(Task::getId).toList();
+
+        taskService.deleteTasks(ownerId, ids.subList(0, 3));
+
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks WHERE deleted_at IS NOT NULL", Integer.class));
+        assertEquals(ids.subList(3, 5), taskService.getAllTasks(ownerId).stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void batchDeleteSkipsMissingAndForeignIdsAndCountsTheCompletedTasks() {
+        List<Task> tasks = taskService.createTasks(ownerId, List.of(
+                new Task(null, "Open", "o", false), new Task(null, "Done", "d", true), new Task(null, "Kept", "k", true)));
+        Task deletedBefore = taskService.createTask(ownerId, new Task(null, "Gone", "g", true));
+        taskService.deleteTask(ownerId, deletedBefore.getId());
+        List<Long> ids = List.of(tasks.get(0).getId(), tasks.get(1).getId(), deletedBefore.getId(), -1L);
+
+        taskService.deleteTasks(ownerId, ids);
+
+        assertEquals(List.of(tasks.get(2).getId()), taskService.getAllTasks(ownerId).stream().map(Task::getId).toList());
+        assertEquals(1, taskService.countTasks(ownerId, true));
+        assertEquals(List.of(tasks.get(0).getId(), tasks.get(1).getId(), deletedBefore.getId()), jdbcTemplate.queryForList(
+                "SELECT task_id FROM task_tombstones WHERE task_id IN (?, ?, ?, ?) ORDER BY task_id", Long.class,
+                ids.toArray()));
+    }
+
+    @Test
+    void purgerRemovesOnlyRowsDeletedBeforeTheCutoffInBatches() {
+        List<Task> tasks = taskService.createTasks(ownerId, newTasks(30));
+        Instant beforeDelete = Instant.now().minusSeconds(1);
+        taskService.deleteTasks(ownerId, tasks.subList(0, 25).stream().map(Task::getId).toList());
+
+        assertEquals(0, taskPurger.purgeDeletedBefore(beforeDelete));
+        assertEquals(25, taskPurger.purgeDeletedBefore(Instant.now().plusSeconds(1)));
+
+        assertEquals(5, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks", Integer.class));
+        assertEquals(5, taskService.countTasks(ownerId, null));
+    }
+
+    private static List<Task> newTasks(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Task(null, "Task " + i, "Description " + i, false));
+        }
+        return tasks;
+    }
+}
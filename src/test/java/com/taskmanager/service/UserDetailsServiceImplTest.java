@@ -0,0 +1,97 @@
+package com.taskmanager.service;
+
+import com.taskmanager.datasource.ReadYourWrites;
+import com.taskmanager.entity.Role;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.security.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserDetailsServiceImplTest {
+
+    private UserRepository userRepository;
+    private UserDetailsCache userDetailsCache;
+    private UserDetailsServiceImpl userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userDetailsCache = new UserDetailsCache(300, 100);
+        userDetailsService = new UserDetailsServiceImpl(userRepository, userDetailsCache, new ReadYourWrites(5000, 100));
+
+        User user = new User(1L, "alice", "hash", "alice@example.com", Set.of(new Role(1L, "USER")));
+        when(userRepository.findByEmail("alice@example.com")).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void repeatedLookupsHitTheCache() {
+        userDetailsService.loadUserByUsername("alice@example.com");
+        userDetailsService.loadUserByUsername("alice@example.com");
+
+        verify(userRepository, times(1)).findByEmail("alice@example.com");
+        assertEquals(1, userDetailsCache.stats().hitCount());
+        assertEquals(1, userDetailsCache.stats().missCount());
+    }
+
+    @Test
+    void erasingCredentialsDoesNotCorruptTheCachedEntry() {
+        UserDetails first = userDetailsService.loadUserByUsername("alice@example.com");
+        ((org.springframework.security.core.userdetails.User) first).eraseCredentials();
+
+        UserDetails second = userDetailsService.loadUserByUsername("alice@example.com");
+        assertEquals("hash", second.getPassword());
+        assertEquals(1, second.getAuthorities().size());
+    }
+
+    @Test
+    void evictForcesReload() {
+        userDetailsService.loadUserByUsername("alice@example.com");
+        userDetailsCache.evict("alice@example.com");
+        userDetailsService.loadUserByUsername("alice@example.com");
+
+        verify(userRepository, times(2)).findByEmail("alice@example.com");
+    }
+
+    @Test
+    void unknownUsersAreNotCached() {
+        when(userRepository.findByEmail("ghost@example.com")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost@example.com"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost@example.com"));
+        verify(userRepository, times(2)).findByEmail("ghost@example.com");
+    }
+
+    @Test
+    void updatePasswordStoresTheNewHashAndEvictsTheCachedEntry() {
+        UserDetails before = userDetailsService.loadUserByUsername("alice@example.com");
+
+        UserDetails updated = userDetailsService.updatePassword(before, "{bcrypt}rehashed");
+
+        assertEquals("{bcrypt}rehashed", updated.getPassword());
+        verify(userRepository).save(argThat(user -> user.getPassword().equals("{bcrypt}rehashed")));
+        assertEquals("{bcrypt}rehashed", userDetailsService.loadUserByUsername("alice@example.com").getPassword());
+    }
+
+    @Test
+    void aLoadThatRacesWithAnEvictionIsNotCached() {
+        // Evicting from inside the loader would be a recursive update if the loader ran in the map.
+        UserDetails loaded = userDetailsCache.get("alice@example.com", email -> {
+            userDetailsCache.evict(email);
+            return new AuthenticatedUser(1L, email, "stale-hash", List.of());
+        });
+
+        assertEquals("stale-hash", loaded.getPassword());
+        assertEquals("hash", userDetailsService.loadUserByUsername("alice@example.com").getPassword());
+        verify(userRepository, times(1)).findByEmail("alice@example.com");
+    }
+}
@@ -0,0 +1,207 @@
+package com.taskmanager.service;
+
+import com.taskmanager.entity.Role;
+import com.taskmanager.entity.User;
+import com.taskmanager.payload.response.UserImportResponse;
+import com.taskmanager.repository.RoleRepository;
+import com.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:user-import;DB_CLOSE_DELAY=-1",
+        "app.security.password.bcrypt-strength=4",
+        "app.users.import.chunk-size=50"
+})
+class UserImportServiceTest {
+
+    // Runs once right after the import's username check, standing in for a concurrent registration.
+    private static final AtomicReference<Runnable> AFTER_USERNAME_CHECK = new AtomicReference<>();
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void stopRacing() {
+        AFTER_USERNAME_CHECK.set(null);
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM user_roles");
+        jdbcTemplate.update("DELETE FROM users WHERE email <> 'test@example.com'");
+        if (roleRepository.findByName("ADMIN").isEmpty()) {
+            roleRepository.save(new Role(null, "ADMIN"));
+            roleRepository.save(new Role(null, "USER"));
+        }
+    }
+
+    @Test
+    void csvRowsAreImportedWithRolesAndInvalidRowsAreReported() throws Exception {
+        String csv = """
+                email,username,password,roles
+                ann@example.com,ann,"secret,1",ADMIN;USER
+                bob@example.com,bob,secret2,
+                test@example.com,someone,secret3,USER
+                carl@example.com,testuser,secret4,USER
+                dee@example.com,dee,short,USER
+                eve@example.com,eve,secret5,OWNER
+                ann@example.com,ann2,secret6,USER
+                "fay@example.com","fay","sec""ret7","USER"
+                broken@example.com,broken
+                """;
+
+        UserImportResponse response = userImportService.importCsv(stream(csv));
+
+        assertEquals(3, response.getImported());
+        assertEquals(6, response.getRejected());
+        Map<Integer, String> errors = response.getErrors().stream()
+                .collect(Collectors.toMap(UserImportResponse.RowError::getLine, UserImportResponse.RowError::getMessage));
+        assertEquals("Email is already in use", errors.get(4));
+        assertEquals("Username is already taken", errors.get(5));
+        assertTrue(errors.get(6).startsWith("Validation error: password"));
+        assertEquals("Unknown role: OWNER", errors.get(7));
+        assertEquals("Duplicate email in file", errors.get(8));
+        assertEquals("Expected 4 columns but found 2", errors.get(10));
+
+        User ann = userRepository.findByEmail("ann@example.com").orElseThrow();
+        assertTrue(passwordEncoder.matches("secret,1", ann.getPassword()));
+        assertEquals(2, ann.getRoles().size());
+        assertTrue(userRepository.findByEmail("bob@example.com").orElseThrow().getRoles().isEmpty());
+        assertTrue(passwordEncoder.matches("sec\"ret7", userRepository.findByEmail("fay@example.com").orElseThrow().getPassword()));
+    }
+
+    @Test
+    void ndjsonSpanningSeveralChunksIsImportedInFull() throws Exception {
+        // A miss cached before the import must not hide the imported user afterwards.
+        assertTrue(userRepository.findByEmail("user42@example.com").isEmpty());
+
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 230; i++) {
+            ndjson.append("{\"username\":\"user").append(i).append("\",\"email\":\"user").append(i)
+                    .append("@example.com\",\"password\":\"password").append(i).append("\",\"roles\":[\"USER\"]}\n");
+        }
+        ndjson.append("{not json}\n");
+
+        UserImportResponse response = userImportService.importNdjson(stream(ndjson.toString()));
+
+        assertEquals(230, response.getImported());
+        assertEquals(List.of("Invalid JSON"), response.getErrors().stream().map(UserImportResponse.RowError::getMessage).toList());
+        assertEquals(230, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_roles", Integer.class));
+        User user = userRepository.findByEmail("user42@example.com").orElseThrow();
+        assertTrue(passwordEncoder.matches("password42", user.getPassword()));
+    }
+
+    @Test
+    void aRejectedRowDoesNotClaimItsEmailOrUsername() throws Exception {
+        String csv = """
+                email,username,password
+                ann@example.com,ann,secret1
+                bob@example.com,ann,secret2
+                bob@example.com,bob,secret3
+                cat@example.com,testuser,secret4
+                cat@example.com,cat,secret5
+                """;
+
+        UserImportResponse response = userImportService.importCsv(stream(csv));
+
+        assertEquals(3, response.getImported());
+        assertEquals(List.of("Duplicate username in file", "Username is already taken"),
+                response.getErrors().stream().map(UserImportResponse.RowError::getMessage).toList());
+        assertTrue(userRepository.findByEmail("bob@example.com").isPresent());
+        assertTrue(userRepository.findByEmail("cat@example.com").isPresent());
+    }
+
+    @Test
+    void aUserRegisteredAfterTheCheckOnlyRejectsItsOwnRow() throws Exception {
+        AFTER_USERNAME_CHECK.set(() -> jdbcTemplate.update(
+                "INSERT INTO users (username, password, email) VALUES ('bob', 'x', 'racer@example.com')"));
+
+        UserImportResponse response = userImportService.importCsv(stream("""
+                email,username,password
+                ann@example.com,ann,secret1
+                bob@example.com,bob,secret2
+                cat@example.com,cat,secret3
+                """));
+
+        assertEquals(2, response.getImported());
+        assertEquals(1, response.getRejected());
+        assertEquals(3, response.getErrors().get(0).getLine());
+        assertEquals("Conflicts with a user registered during the import", response.getErrors().get(0).getMessage());
+        assertTrue(userRepository.findByEmail("ann@example.com").isPresent());
+        assertTrue(userRepository.findByEmail("cat@example.com").isPresent());
+        assertTrue(userRepository.findByEmail("bob@example.com").isEmpty());
+    }
+
+    @Test
+    void csvWithoutTheRequiredColumnsIsRefused() {
+        assertThrows(IllegalArgumentException.class,
+                () -> userImportService.importCsv(stream("name,mail\nann,ann@example.com\n")));
+    }
+
+    @TestConfiguration
+    static class RacingRegistration {
+
+        @Bean
+        static BeanPostProcessor racingUserRepository() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof UserRepository repository)) {
+                        return bean;
+                    }
+                    return Proxy.newProxyInstance(UserRepository.class.getClassLoader(), new Class<?>[]{UserRepository.class},
+                            (proxy, method, args) -> {
+                                Object result;
+                                try {
+                                    result = method.invoke(repository, args);
+                                } catch (InvocationTargetException e) {
+                                    throw e.getCause();
+                                }
+                                Runnable race = method.getName().equals("findExistingUsernames")
+                                        ? AFTER_USERNAME_CHECK.getAndSet(null) : null;
+                                if (race != null) {
+                                    race.run();
+                                }
+                                return result;
+                            });
+                }
+            };
+        }
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
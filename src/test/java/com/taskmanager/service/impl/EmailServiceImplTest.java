@@ -0,0 +1,139 @@
+package com.taskmanager.service.impl;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailServiceImplTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private EmailServiceImpl emailService;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (emailService != null) {
+            emailService.stop();
+        }
+    }
+
+    private static JavaMailSenderImpl mailSender(int port) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(port);
+        return mailSender;
+    }
+
+    private static EmailServiceImpl emailService(int port, int capacity, int workers, int maxAttempts) {
+        return emailService(mailSender(port), capacity, workers, maxAttempts);
+    }
+
+    private static EmailServiceImpl emailService(JavaMailSender mailSender, int capacity, int workers, int maxAttempts) {
+        return new EmailServiceImpl(mailSender, "no-reply@taskmanager.local", "http://localhost:5173/",
+                capacity, workers, 10, maxAttempts, 100, 10);
+    }
+
+    // The sent counter is updated just after the server acknowledges the message.
+    private void awaitSentCount(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (emailService.getSentCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, emailService.getSentCount());
+    }
+
+    @Test
+    void queuedEmailsAreDeliveredInTheBackground() throws InterruptedException {
+        emailService = emailService(ServerSetupTest.SMTP.getPort(), 100, 2, 3);
+        emailService.start();
+
+        for (int i = 0; i < 25; i++) {
+            emailService.sendPasswordResetEmail("user" + i + "@example.com ", "token-" + i);
+        }
+
+        assertTrue(greenMail.waitForIncomingEmail(10_000, 25));
+        assertEquals(25, greenMail.getReceivedMessages().length);
+        awaitSentCount(25);
+        assertEquals(0, emailService.getQueueDepth());
+        assertEquals(0, emailService.getFailedCount());
+    }
+
+    @Test
+    void retriesWithBackoffUntilTheServerIsReachable() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        emailService = emailService(port, 10, 1, 5);
+        emailService.start();
+        emailService.sendPasswordResetEmail("late@example.com", "token");
+
+        Thread.sleep(150);
+        GreenMail lateServer = new GreenMail(new ServerSetup(port, null, ServerSetup.PROTOCOL_SMTP));
+        lateServer.start();
+        try {
+            assertTrue(lateServer.waitForIncomingEmail(10_000, 1));
+            awaitSentCount(1);
+        } finally {
+            lateServer.stop();
+        }
+    }
+
+    @Test
+    void unexpectedExceptionFailsTheEmailButNotTheWorker() throws InterruptedException, MessagingException {
+        AtomicBoolean broken = new AtomicBoolean(true);
+        JavaMailSenderImpl flaky = new JavaMailSenderImpl() {
+            @Override
+            public void send(MimeMessage... mimeMessages) {
+                if (broken.getAndSet(false)) {
+                    throw new IllegalStateException("mail session misconfigured");
+                }
+                super.send(mimeMessages);
+            }
+        };
+        flaky.setHost("localhost");
+        flaky.setPort(ServerSetupTest.SMTP.getPort());
+        emailService = emailService(flaky, 10, 1, 1);
+        emailService.start();
+
+        emailService.sendPasswordResetEmail("lost@example.com", "token-1");
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (emailService.getFailedCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, emailService.getFailedCount());
+
+        emailService.sendPasswordResetEmail("delivered@example.com", "token-2");
+        assertTrue(greenMail.waitForIncomingEmail(5_000, 1));
+        awaitSentCount(1);
+        assertEquals("delivered@example.com", greenMail.getReceivedMessages()[0].getAllRecipients()[0].toString());
+    }
+
+    @Test
+    void rejectsWhenTheQueueIsFull() {
+        // No workers started, so nothing drains the queue.
+        emailService = emailService(ServerSetupTest.SMTP.getPort(), 1, 0, 1);
+        emailService.start();
+
+        emailService.sendPasswordResetEmail("first@example.com", "token-1");
+        emailService.sendPasswordResetEmail("second@example.com", "token-2");
+
+        assertEquals(1, emailService.getQueueDepth());
+        assertEquals(1, emailService.getRejectedCount());
+    }
+}
@@ -0,0 +1,37 @@
+package com.taskmanager.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryLoginThrottleTest {
+
+    @Test
+    void failuresOutsideTheWindowStopCounting() {
+        AtomicLong now = new AtomicLong(1_000_000);
+        InMemoryLoginThrottle throttle = new InMemoryLoginThrottle(3, Duration.ofMinutes(15), 100, now::get);
+
+        throttle.recordFailure("alice@example.com");
+        throttle.recordFailure("alice@example.com");
+        now.addAndGet(Duration.ofMinutes(10).toMillis());
+        throttle.recordFailure("alice@example.com");
+        assertTrue(throttle.isBlocked("alice@example.com"));
+
+        now.addAndGet(Duration.ofMinutes(6).toMillis());
+        assertFalse(throttle.isBlocked("alice@example.com"));
+    }
+
+    @Test
+    void resetUnblocks() {
+        InMemoryLoginThrottle throttle = new InMemoryLoginThrottle(2, Duration.ofMinutes(15), 100);
+        throttle.recordFailure("alice@example.com");
+        throttle.recordFailure("alice@example.com");
+        assertTrue(throttle.isBlocked("alice@example.com"));
+
+        throttle.reset("alice@example.com");
+        assertFalse(throttle.isBlocked("alice@example.com"));
+    }
+}
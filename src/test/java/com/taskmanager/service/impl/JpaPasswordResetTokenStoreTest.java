@@ -0,0 +1,94 @@
+package com.taskmanager.service.impl;
+
+import com.taskmanager.entity.PasswordResetToken;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.PasswordResetTokenRepository;
+import com.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:password-reset;DB_CLOSE_DELAY=-1",
+        "app.security.password-reset.purge-batch-size=10"
+})
+class JpaPasswordResetTokenStoreTest {
+
+    @Autowired
+    private JpaPasswordResetTokenStore store;
+
+    @Autowired
+    private PasswordResetTokenRepository repository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        userId = userRepository.findByEmail("test@example.com").orElseThrow().getId();
+    }
+
+    @Test
+    void tokenRedeemsOnceForItsUser() {
+        String token = store.issue(userId);
+
+        assertEquals(Optional.of(userId), store.redeem(token));
+        assertEquals(Optional.empty(), store.redeem(token));
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void reissuingInvalidatesThePreviousToken() {
+        String first = store.issue(userId);
+        String second = store.issue(userId);
+
+        assertEquals(Optional.empty(), store.redeem(first));
+        assertEquals(Optional.of(userId), store.redeem(second));
+    }
+
+    @Test
+    void expiredTokensAreRejectedAndPurgedInBatches() {
+        for (int i = 0; i < 25; i++) {
+            User user = userRepository.save(new User(null, "reset" + i + "-" + System.nanoTime(), "hash",
+                    "reset" + i + "-" + System.nanoTime() + "@example.com", Set.of()));
+            repository.save(token(user, "expired-" + user.getId(), LocalDateTime.now().minusMinutes(1)));
+        }
+        String live = store.issue(userId);
+        String expired = repository.findAll().stream()
+                .map(PasswordResetToken::getToken).filter(t -> t.startsWith("expired-")).findFirst().orElseThrow();
+
+        assertEquals(Optional.empty(), store.redeem(expired));
+        assertEquals(24, store.purgeExpiredBefore(LocalDateTime.now()));
+        assertEquals(1, repository.count());
+        assertEquals(Optional.of(userId), store.redeem(live));
+    }
+
+    @Test
+    void tokenLookupUsesTheUniqueIndex() {
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT * FROM password_reset_token WHERE token = 'x'", String.class);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    private static PasswordResetToken token(User user, String value, LocalDateTime expiry) {
+        PasswordResetToken token = new PasswordResetToken();
+        token.setUser(user);
+        token.setToken(value);
+        token.setExpiryDate(expiry);
+        return token;
+    }
+}
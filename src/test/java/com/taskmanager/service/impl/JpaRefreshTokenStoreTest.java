@@ -0,0 +1,118 @@
+package com.taskmanager.service.impl;
+
+import com.taskmanager.entity.RefreshToken;
+import com.taskmanager.repository.RefreshTokenRepository;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.service.RefreshTokenStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:refresh-token;DB_CLOSE_DELAY=-1",
+        "app.security.refresh-token.purge-batch-size=10"
+})
+@AutoConfigureMockMvc
+class JpaRefreshTokenStoreTest {
+
+    @Autowired
+    private JpaRefreshTokenStore store;
+
+    @Autowired
+    private RefreshTokenRepository repository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        userId = userRepository.findByEmail("test@example.com").orElseThrow().getId();
+    }
+
+    @Test
+    void rotationReplacesTheTokenAndReuseRevokesTheFamily() {
+        String first = store.issue(userId, "test@example.com");
+        RefreshTokenStore.Rotation rotation = store.rotate(first).orElseThrow();
+        assertEquals(userId, rotation.userId());
+        assertEquals("test@example.com", rotation.subject());
+        String other = store.issue(userId, "test@example.com");
+
+        assertEquals(Optional.empty(), store.rotate(first));
+        assertEquals(Optional.empty(), store.rotate(rotation.token()));
+        assertTrue(store.rotate(other).isPresent());
+    }
+
+    @Test
+    void revokeEndsOneFamilyAndRevokeAllEndsEvery() {
+        String first = store.issue(userId, "test@example.com");
+        String second = store.issue(userId, "test@example.com");
+
+        store.revoke(first);
+        assertEquals(Optional.empty(), store.rotate(first));
+        store.revokeAll(userId);
+        assertEquals(Optional.empty(), store.rotate(second));
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void expiredTokensAreRejectedAndPurgedInBatches() {
+        for (int i = 0; i < 25; i++) {
+            store.issue(userId, "test@example.com");
+        }
+        String live = store.issue(userId, "test@example.com");
+        String expired = store.issue(userId, "test@example.com");
+        jdbcTemplate.update("UPDATE refresh_token SET expiry_date = ? WHERE token_hash <> ?",
+                LocalDateTime.now().minusMinutes(1), RefreshTokens.hash(live));
+        assertEquals(Optional.empty(), store.rotate(expired));
+
+        assertEquals(26, store.purgeExpiredBefore(LocalDateTime.now()));
+        assertEquals(1, repository.count());
+        assertTrue(repository.findAll().stream().map(RefreshToken::getTokenHash).noneMatch(live::equals));
+        assertTrue(store.rotate(live).isPresent());
+    }
+
+    @Test
+    void refreshEndpointSignsANewAccessTokenWithoutALogin() throws Exception {
+        String token = store.issue(userId, "test@example.com");
+
+        mockMvc.perform(post("/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + token + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNotEmpty())
+                .andExpect(jsonPath("$.refreshToken").isNotEmpty());
+        mockMvc.perform(post("/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + token + "\"}"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/auth/refresh").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void tokenLookupUsesTheUniqueIndex() {
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT * FROM refresh_token WHERE token_hash = 'x'", String.class);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+}
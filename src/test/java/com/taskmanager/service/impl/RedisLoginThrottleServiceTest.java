@@ -0,0 +1,132 @@
+package com.taskmanager.service.impl;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisLoginThrottleServiceTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void flush() {
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    private RedisLoginThrottleService throttle(String store) {
+        return new RedisLoginThrottleService(redisTemplate, store, 3, 900, 1000, 30);
+    }
+
+    @Test
+    void blocksAfterMaxFailuresAcrossNodes() {
+        RedisLoginThrottleService nodeA = throttle("redis");
+        RedisLoginThrottleService nodeB = throttle("redis");
+
+        nodeA.recordFailure("alice@example.com");
+        nodeB.recordFailure("Alice@Example.com ");
+        assertFalse(nodeA.isBlocked("alice@example.com"));
+
+        nodeA.recordFailure("alice@example.com");
+        assertTrue(nodeB.isBlocked("alice@example.com"));
+        assertFalse(nodeB.isBlocked("bob@example.com"));
+    }
+
+    @Test
+    void windowKeyCarriesTtlAndStaysBounded() {
+        RedisLoginThrottleService service = throttle("redis");
+        for (int i = 0; i < 10; i++) {
+            service.recordFailure("alice@example.com");
+        }
+
+        Long ttl = redisTemplate.getExpire("login-throttle:alice@example.com");
+        assertNotNull(ttl);
+        assertTrue(ttl > 0 && ttl <= 900);
+        assertEquals(3L, redisTemplate.opsForZSet().zCard("login-throttle:alice@example.com"));
+    }
+
+    @Test
+    void resetClearsTheWindow() {
+        RedisLoginThrottleService service = throttle("redis");
+        for (int i = 0; i < 3; i++) {
+            service.recordFailure("alice@example.com");
+        }
+        assertTrue(service.isBlocked("alice@example.com"));
+
+        service.reset("alice@example.com");
+        assertFalse(service.isBlocked("alice@example.com"));
+        assertFalse(redisTemplate.hasKey("login-throttle:alice@example.com"));
+    }
+
+    @Test
+    void concurrentFailuresAreCountedAtomically() throws Exception {
+        RedisLoginThrottleService service = new RedisLoginThrottleService(redisTemplate, "redis", 50, 900, 1000, 30);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 49; i++) {
+            futures.add(executor.submit(() -> service.recordFailure("alice@example.com")));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertFalse(service.isBlocked("alice@example.com"));
+        service.recordFailure("alice@example.com");
+        assertTrue(service.isBlocked("alice@example.com"));
+    }
+
+    @Test
+    void fallsBackToMemoryWhenRedisIsUnreachable() {
+        LettuceConnectionFactory deadFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", 1));
+        deadFactory.afterPropertiesSet();
+        deadFactory.start();
+        try {
+            RedisLoginThrottleService service = new RedisLoginThrottleService(
+                    new StringRedisTemplate(deadFactory), "redis", 3, 900, 1000, 30);
+            for (int i = 0; i < 3; i++) {
+                service.recordFailure("alice@example.com");
+            }
+            assertTrue(service.isBlocked("alice@example.com"));
+        } finally {
+            deadFactory.destroy();
+        }
+    }
+}
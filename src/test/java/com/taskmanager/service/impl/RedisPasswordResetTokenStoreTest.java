@@ -0,0 +1,80 @@
+package com.taskmanager.service.impl;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisPasswordResetTokenStoreTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private final RedisPasswordResetTokenStore store = new RedisPasswordResetTokenStore(redisTemplate, 60);
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void flush() {
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    @Test
+    void tokenRedeemsOnceForItsUser() {
+        String token = store.issue(42L);
+
+        assertEquals(Optional.of(42L), store.redeem(token));
+        assertEquals(Optional.empty(), store.redeem(token));
+        assertEquals(Optional.empty(), store.redeem("unknown"));
+    }
+
+    @Test
+    void reissuingInvalidatesThePreviousToken() {
+        String first = store.issue(42L);
+        String second = store.issue(42L);
+
+        assertEquals(Optional.empty(), store.redeem(first));
+        assertEquals(Optional.of(42L), store.redeem(second));
+    }
+
+    @Test
+    void keysExpireWithTheTokenTtl() {
+        String token = store.issue(42L);
+
+        for (String key : new String[]{"password-reset:token:" + token, "password-reset:user:42"}) {
+            Long ttl = redisTemplate.getExpire(key);
+            assertNotNull(ttl);
+            assertTrue(ttl > 0 && ttl <= 3600, key + " ttl " + ttl);
+        }
+    }
+}
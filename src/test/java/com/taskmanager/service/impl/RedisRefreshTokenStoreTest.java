@@ -0,0 +1,128 @@
+package com.taskmanager.service.impl;
+
+import com.taskmanager.service.RefreshTokenStore;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisRefreshTokenStoreTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private final RedisRefreshTokenStore store = new RedisRefreshTokenStore(redisTemplate, 14);
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void flush() {
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    @Test
+    void rotationReplacesTheToken() {
+        String first = store.issue(42L, "ann@example.com");
+
+        RefreshTokenStore.Rotation rotation = store.rotate(first).orElseThrow();
+        assertEquals(42L, rotation.userId());
+        assertEquals("ann@example.com", rotation.subject());
+        assertNotEquals(first, rotation.token());
+        assertTrue(store.rotate(rotation.token()).isPresent());
+        assertEquals(Optional.empty(), store.rotate("unknown"));
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheFamily() {
+        String first = store.issue(42L, "ann@example.com");
+        String second = store.rotate(first).orElseThrow().token();
+        String other = store.issue(42L, "ann@example.com");
+
+        assertEquals(Optional.empty(), store.rotate(first));
+        assertEquals(Optional.empty(), store.rotate(second));
+        assertTrue(store.rotate(other).isPresent());
+    }
+
+    @Test
+    void revokeEndsOneFamilyAndRevokeAllEndsEvery() {
+        String first = store.issue(42L, "ann@example.com");
+        String second = store.issue(42L, "ann@example.com");
+        String third = store.issue(42L, "ann@example.com");
+
+        store.revoke(first);
+        assertEquals(Optional.empty(), store.rotate(first));
+        assertTrue(store.rotate(second).isPresent());
+
+        store.revokeAll(42L);
+        assertEquals(Optional.empty(), store.rotate(third));
+        assertTrue(redisTemplate.keys("refresh-token:family:*").isEmpty());
+    }
+
+    @Test
+    void revokedReusedAndExpiredFamiliesLeaveTheUsersIndex() {
+        String revoked = store.issue(42L, "ann@example.com");
+        String reused = store.issue(42L, "ann@example.com");
+        store.rotate(reused);
+        String expired = store.issue(42L, "ann@example.com");
+        String live = store.issue(42L, "ann@example.com");
+
+        store.revoke(revoked);
+        store.rotate(reused);
+        assertEquals(2, redisTemplate.opsForZSet().zCard("refresh-token:user:42"));
+
+        // Stands in for a family whose key expired after going idle.
+        String family = (String) redisTemplate.opsForHash().get(tokenKey(expired), "family");
+        redisTemplate.opsForZSet().add("refresh-token:user:42", family, 0);
+        store.rotate(live);
+
+        assertEquals(Set.of(redisTemplate.opsForHash().get(tokenKey(live), "family")),
+                redisTemplate.opsForZSet().range("refresh-token:user:42", 0, -1));
+    }
+
+    @Test
+    void keysExpireWithTheTokenTtlAndTokensAreStoredHashed() {
+        String token = store.issue(42L, "ann@example.com");
+
+        assertFalse(redisTemplate.hasKey("refresh-token:token:" + token));
+        for (String key : redisTemplate.keys("refresh-token:*")) {
+            Long ttl = redisTemplate.getExpire(key);
+            assertNotNull(ttl);
+            assertTrue(ttl > 13 * 86400 && ttl <= 14 * 86400, key + " ttl " + ttl);
+        }
+    }
+
+    private static String tokenKey(String token) {
+        return "refresh-token:token:" + RefreshTokens.hash(token);
+    }
+}
@@ -0,0 +1,138 @@
+package com.taskmanager.service.impl;
+
+import com.taskmanager.security.AuthenticatedUser;
+import com.taskmanager.security.jwt.TokenRevocationList;
+import com.taskmanager.security.jwt.VerifiedToken;
+import com.taskmanager.service.UserDetailsCache;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.core.userdetails.UserDetails;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisTokenRevocationServiceTest {
+
+    private static final long HOUR = 3_600_000;
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private final TokenRevocationList firstList = new TokenRevocationList(HOUR, 100);
+    private final TokenRevocationList secondList = new TokenRevocationList(HOUR, 100);
+    private final UserDetailsCache secondUsers = new UserDetailsCache(300, 100);
+    private final RedisTokenRevocationService first =
+            new RedisTokenRevocationService(redisTemplate, firstList, new UserDetailsCache(300, 100), HOUR);
+    private final RedisTokenRevocationService second = new RedisTokenRevocationService(redisTemplate, secondList, secondUsers, HOUR);
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        first.start();
+        second.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        first.stop();
+        second.stop();
+    }
+
+    @Test
+    void revocationsReachEveryNode() throws InterruptedException {
+        long expiresAt = System.currentTimeMillis() + HOUR;
+        long now = System.currentTimeMillis() / 1000;
+
+        first.revokeToken("jti-1", expiresAt);
+        second.revokeIssuedBefore("ann@example.com", now);
+
+        VerifiedToken revokedById = new VerifiedToken("bob@example.com", "bob@example.com", "jti-1", now, expiresAt);
+        VerifiedToken issuedBefore = new VerifiedToken("ann@example.com", "ann@example.com", "jti-2", now - 1, expiresAt);
+        // The revoking node sees its own change at once, the other one through pub/sub.
+        assertTrue(firstList.isRevoked(revokedById));
+        assertTrue(secondList.isRevoked(issuedBefore));
+        awaitTrue(() -> secondList.isRevoked(revokedById));
+        awaitTrue(() -> firstList.isRevoked(issuedBefore));
+    }
+
+    @Test
+    void nodeStartingLaterLoadsEarlierRevocations() throws Exception {
+        long expiresAt = System.currentTimeMillis() + HOUR;
+        long now = System.currentTimeMillis() / 1000;
+        first.revokeToken("jti-1", expiresAt);
+        first.revokeIssuedBefore("ann@example.com", now);
+        first.revokeIssuedBefore("gone@example.com", (System.currentTimeMillis() - 2 * HOUR) / 1000);
+
+        TokenRevocationList lateList = new TokenRevocationList(HOUR, 100);
+        RedisTokenRevocationService late = new RedisTokenRevocationService(redisTemplate, lateList, new UserDetailsCache(300, 100), HOUR);
+        late.start();
+        try {
+            assertTrue(lateList.isRevoked(new VerifiedToken("bob@example.com", "bob@example.com", "jti-1", now, expiresAt)));
+            assertTrue(lateList.isRevoked(new VerifiedToken("ann@example.com", "ann@example.com", null, now - 1, expiresAt)));
+            assertFalse(lateList.isRevoked(new VerifiedToken("gone@example.com", "gone@example.com", null, 0, expiresAt)));
+        } finally {
+            late.stop();
+        }
+    }
+
+    @Test
+    void subjectWideRevocationDropsCachedUserDetailsOnOtherNodes() throws InterruptedException {
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, UserDetails> loader = email -> {
+            loads.incrementAndGet();
+            return new AuthenticatedUser(1L, email, "hash-" + loads.get(), List.of());
+        };
+        assertEquals("hash-1", secondUsers.get("ann@example.com", loader).getPassword());
+
+        first.revokeIssuedBefore("ann@example.com", System.currentTimeMillis() / 1000);
+
+        awaitTrue(() -> secondUsers.nativeCache().getIfPresent("ann@example.com") == null);
+        assertEquals("hash-2", secondUsers.get("ann@example.com", loader).getPassword());
+        // A resync repeats the known watermark without evicting again.
+        second.resync();
+        assertEquals("hash-2", secondUsers.get("ann@example.com", loader).getPassword());
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.taskmanager.stream;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.security.jwt.JwtUtil;
+import com.taskmanager.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.core.userdetails.User;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Opens many concurrent SSE subscribers against a Tomcat limited to a few request threads and
+ * checks every one of them receives a change, and that a client which stops reading is dropped
+ * while the others keep receiving.
+ * Subscriber count can be raised with -Dstream.subscribers=10000.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:task-stream;DB_CLOSE_DELAY=-1",
+        "server.tomcat.threads.max=" + TaskStreamLoadTest.REQUEST_THREADS,
+        "app.tasks.stream.buffer-capacity=100000",
+        "app.tasks.stream.send-timeout-ms=2000",
+        "app.tasks.stream.send-timeout-check-ms=100"
+})
+class TaskStreamLoadTest {
+
+    static final int REQUEST_THREADS = 50;
+    private static final int SUBSCRIBERS = Integer.getInteger("stream.subscribers", 1000);
+    // About 10 MB of events, more than the loopback socket buffers hold.
+    private static final int FLOOD_TASKS = 15_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskStreamService taskStreamService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void everySubscriberReceivesTheChange() throws Exception {
+        String token = jwtUtil.generateToken(new User("test@example.com", "n/a", List.of()));
+        ExecutorService clientThreads = Executors.newFixedThreadPool(4);
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clientThreads).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/tasks/stream"))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "text/event-stream")
+                .build();
+
+        CountDownLatch received = new CountDownLatch(SUBSCRIBERS);
+        List<LineCollector> collectors = new ArrayList<>();
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        int subscribersBefore = taskStreamService.getSubscriberCount();
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            LineCollector collector = new LineCollector(received);
+            collectors.add(collector);
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(collector)));
+        }
+        awaitSubscribers(subscribersBefore + SUBSCRIBERS);
+        int threadsWhileConnected = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        Long ownerId = userRepository.findByEmail("test@example.com").orElseThrow().getId();
+        taskService.createTask(ownerId, new Task(null, "broadcast", "to every subscriber", false));
+
+        assertTrue(received.await(60, TimeUnit.SECONDS), received.getCount() + " subscribers missed the event");
+        assertTrue(threadsWhileConnected - threadsBefore < 2 * REQUEST_THREADS,
+                "server should not hold a thread per connection: " + threadsBefore + " -> " + threadsWhileConnected);
+
+        collectors.forEach(LineCollector::cancel);
+        responses.forEach(response -> response.cancel(true));
+        client.shutdownNow();
+        clientThreads.shutdownNow();
+    }
+
+    // The stalled client never reads, so once the socket buffers fill its send blocks for good.
+    @Test
+    void subscriberThatStopsReadingIsDroppedWithoutHoldingUpTheOthers() throws Exception {
+        String token = jwtUtil.generateToken(new User("test@example.com", "n/a", List.of()));
+        long stalledBefore = taskStreamService.getStalledCount();
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        try (Socket stalled = new Socket()) {
+            stalled.setReceiveBufferSize(4096);
+            stalled.connect(new InetSocketAddress("localhost", port));
+            stalled.getOutputStream().write(("GET /tasks/stream HTTP/1.1\r\nHost: localhost\r\n"
+                    + "Authorization: Bearer " + token + "\r\nAccept: text/event-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            BufferedReader stalledReader = new BufferedReader(new InputStreamReader(stalled.getInputStream(), StandardCharsets.US_ASCII));
+            String line;
+            do {
+                line = stalledReader.readLine();
+            } while (line != null && !line.startsWith(":connected"));
+            CountDownLatch received = new CountDownLatch(1);
+            LineCollector reader = new LineCollector(received);
+            client.sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/tasks/stream"))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Accept", "text/event-stream")
+                    .build(), HttpResponse.BodyHandlers.fromLineSubscriber(reader));
+            assertTrue(reader.connected.await(10, TimeUnit.SECONDS));
+
+            Long ownerId = userRepository.findByEmail("test@example.com").orElseThrow().getId();
+            String filler = "x".repeat(250);
+            for (int batch = 0; batch < FLOOD_TASKS / 500; batch++) {
+                List<Task> tasks = new ArrayList<>(500);
+                for (int i = 0; i < 500; i++) {
+                    tasks.add(new Task(null, filler, filler, false));
+                }
+                taskService.createTasks(ownerId, tasks);
+            }
+            taskService.createTask(ownerId, new Task(null, "broadcast", "after the flood", false));
+
+            assertTrue(received.await(60, TimeUnit.SECONDS), "the reading subscriber missed the event, "
+                    + (taskStreamService.getStalledCount() - stalledBefore) + " dropped");
+            long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+            while (taskStreamService.getStalledCount() == stalledBefore && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(stalledBefore + 1, taskStreamService.getStalledCount());
+            reader.cancel();
+        } finally {
+            client.shutdownNow();
+        }
+    }
+
+    @Test
+    void subscriberWithoutTokenIsRejected() throws Exception {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpResponse<Void> response = client.send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/tasks/stream")).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            assertEquals(403, response.statusCode());
+        }
+    }
+
+    // At least, since connections another test left behind only go once a write to them fails.
+    private void awaitSubscribers(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(60).toNanos();
+        while (taskStreamService.getSubscriberCount() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(taskStreamService.getSubscriberCount() >= expected, taskStreamService.getSubscriberCount() + " subscribers");
+    }
+
+    private static class LineCollector implements Flow.Subscriber<String> {
+        private final CountDownLatch received;
+        private final CountDownLatch connected = new CountDownLatch(1);
+        private Flow.Subscription subscription;
+        private boolean counted;
+
+        LineCollector(CountDownLatch received) {
+            this.received = received;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.startsWith(":connected")) {
+                connected.countDown();
+            }
+            if (!counted && line.startsWith("data:") && line.contains("broadcast")) {
+                counted = true;
+                received.countDown();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        void cancel() {
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+}
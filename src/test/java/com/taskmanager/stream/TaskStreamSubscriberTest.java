@@ -0,0 +1,204 @@
+package com.taskmanager.stream;
+
+import com.taskmanager.event.TaskChangedEvent;
+import com.taskmanager.model.Task;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Spring only for the catch-up test, which reads the dropped changes back through TaskService.
+@SpringBootTest
+class TaskStreamSubscriberTest {
+
+    private static final long OVERLAP_MS = 1000;
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\d+)");
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Runs drains only when the test says so, standing in for a sender blocked on a slow client.
+    private final Queue<Runnable> queued = new ArrayDeque<>();
+    private final Executor executor = queued::add;
+    private final RecordingEmitter emitter = new RecordingEmitter();
+    private final List<TaskStreamSubscriber> closed = new ArrayList<>();
+
+    @Test
+    void repeatedChangesToOneTaskCollapseIntoItsLatestState() {
+        TaskStreamSubscriber subscriber = new TaskStreamSubscriber(emitter, 10, OVERLAP_MS, executor, closed::add);
+
+        subscriber.offer(List.of(change(TaskChangedEvent.Type.CREATED, 1L, "v1")));
+        subscriber.offer(List.of(change(TaskChangedEvent.Type.UPDATED, 1L, "v2")));
+        subscriber.offer(List.of(change(TaskChangedEvent.Type.UPDATED, 2L, "other")));
+        subscriber.offer(List.of(change(TaskChangedEvent.Type.UPDATED, 1L, "v3")));
+        runQueued();
+
+        assertEquals(2, emitter.events.size());
+        assertTrue(emitter.events.get(0).contains("event:updated") && emitter.events.get(0).contains("other"));
+        assertTrue(emitter.events.get(1).contains("v3"));
+    }
+
+    @Test
+    void overflowingSubscriberGetsOneResyncInsteadOfTheBacklog() {
+        TaskStreamSubscriber subscriber = new TaskStreamSubscriber(emitter, 3, OVERLAP_MS, executor, closed::add);
+
+        for (long id = 1; id <= 10; id++) {
+            subscriber.offer(List.of(change(TaskChangedEvent.Type.CREATED, id, "t" + id)));
+        }
+        runQueued();
+
+        assertEquals(1, emitter.events.size());
+        assertTrue(emitter.events.get(0).startsWith("event:resync"));
+        assertEquals(1, subscriber.overflowCount());
+
+        subscriber.offer(List.of(new TaskStreamSubscriber.Change(TaskChangedEvent.Type.DELETED, 4L, null, 1L)));
+        runQueued();
+        assertTrue(emitter.events.get(1).startsWith("event:deleted") && emitter.events.get(1).contains("{id=4}"));
+    }
+
+    @Test
+    void resyncIdCatchesUpOnEveryDroppedChangeThroughTheChangesFeed() {
+        Long ownerId = userRepository.findByEmail("test@example.com").orElseThrow().getId();
+        TaskStreamSubscriber subscriber = new TaskStreamSubscriber(emitter, 3, OVERLAP_MS, executor, closed::add);
+
+        subscriber.offer(List.of(published(taskService.createTask(ownerId, new Task(null, "delivered", "", false)))));
+        runQueued();
+        List<Long> dropped = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Task task = taskService.createTask(ownerId, new Task(null, "dropped " + i, "", false));
+            dropped.add(task.getId());
+            subscriber.offer(List.of(published(task)));
+        }
+        runQueued();
+
+        assertEquals(2, emitter.events.size());
+        assertTrue(emitter.events.get(1).startsWith("event:resync"));
+        Matcher id = EVENT_ID.matcher(emitter.events.get(1));
+        assertTrue(id.find(), emitter.events.get(1));
+        List<Long> caughtUp = taskService.getChangesSince(ownerId, Long.parseLong(id.group(1))).orElseThrow()
+                .getTasks().stream().map(Task::getId).toList();
+        assertTrue(caughtUp.containsAll(dropped), "caught up on " + caughtUp + ", dropped " + dropped);
+    }
+
+    @Test
+    void heartbeatIsOnlySentWhenThereIsNothingElseToSend() {
+        TaskStreamSubscriber subscriber = new TaskStreamSubscriber(emitter, 10, OVERLAP_MS, executor, closed::add);
+
+        subscriber.heartbeat();
+        runQueued();
+        subscriber.offer(List.of(change(TaskChangedEvent.Type.CREATED, 1L, "t")));
+        subscriber.heartbeat();
+        runQueued();
+
+        assertEquals(2, emitter.events.size());
+        assertTrue(emitter.events.get(0).startsWith(":heartbeat"));
+        assertTrue(emitter.events.get(1).startsWith("event:created"));
+    }
+
+    @Test
+    void failedSendClosesTheSubscriber() {
+        emitter.fail = true;
+        TaskStreamSubscriber subscriber = new TaskStreamSubscriber(emitter, 10, OVERLAP_MS, executor, closed::add);
+
+        subscriber.offer(List.of(change(TaskChangedEvent.Type.CREATED, 1L, "t")));
+        runQueued();
+        subscriber.offer(List.of(change(TaskChangedEvent.Type.CREATED, 2L, "t")));
+
+        assertEquals(List.of(subscriber), closed);
+        assertTrue(queued.isEmpty());
+    }
+
+    @Test
+    void blockedSendIsReportedAndADroppedSubscriberEndsTheResponseOnceTheSendReturns() throws Exception {
+        emitter.blockUntil = new CountDownLatch(1);
+        ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+        TaskStreamSubscriber subscriber = new TaskStreamSubscriber(emitter, 10, OVERLAP_MS, sender, closed::add);
+
+        subscriber.offer(List.of(change(TaskChangedEvent.Type.CREATED, 1L, "t")));
+        assertTrue(emitter.sending.await(5, TimeUnit.SECONDS));
+        long timeout = TimeUnit.SECONDS.toNanos(10);
+        assertFalse(subscriber.sendBlockedLongerThan(timeout, System.nanoTime()));
+        assertTrue(subscriber.sendBlockedLongerThan(timeout, System.nanoTime() + 2 * timeout));
+
+        subscriber.close();
+        subscriber.offer(List.of(change(TaskChangedEvent.Type.CREATED, 2L, "t")));
+        emitter.blockUntil.countDown();
+        sender.close();
+
+        assertEquals(1, emitter.events.size());
+        assertTrue(emitter.completed);
+        assertFalse(subscriber.sendBlockedLongerThan(0, System.nanoTime()));
+    }
+
+    private void runQueued() {
+        Runnable next;
+        while ((next = queued.poll()) != null) {
+            next.run();
+        }
+    }
+
+    // As TaskStreamService stamps a change once its transaction has committed.
+    private static TaskStreamSubscriber.Change published(Task task) {
+        return new TaskStreamSubscriber.Change(TaskChangedEvent.Type.CREATED, task.getId(), task, System.currentTimeMillis());
+    }
+
+    private static TaskStreamSubscriber.Change change(TaskChangedEvent.Type type, long id, String title) {
+        return new TaskStreamSubscriber.Change(type, id, new Task(id, title, "", false), 1L);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new ArrayList<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private boolean fail;
+        private CountDownLatch blockUntil;
+        private volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (fail) {
+                throw new IOException("Broken pipe");
+            }
+            if (blockUntil != null) {
+                sending.countDown();
+                try {
+                    blockUntil.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            events.add(builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .map(String::valueOf)
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}